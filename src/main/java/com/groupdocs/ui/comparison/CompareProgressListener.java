@@ -0,0 +1,43 @@
+package com.groupdocs.ui.comparison;
+
+/**
+ * Listener of the comparison progress
+ */
+public interface CompareProgressListener {
+
+    /**
+     * Listener ignoring the progress
+     */
+    CompareProgressListener NONE = new CompareProgressListener() {
+        @Override
+        public void onComparing() {
+        }
+
+        @Override
+        public void onRendering(int pageCount) {
+        }
+
+        @Override
+        public void onPageLoaded(int pageNumber) {
+        }
+    };
+
+    /**
+     * Comparison of documents is started
+     */
+    void onComparing();
+
+    /**
+     * Loading of result pages is started
+     *
+     * @param pageCount count of pages to load
+     */
+    void onRendering(int pageCount);
+
+    /**
+     * Result page is loaded
+     *
+     * @param pageNumber zero-based page number
+     */
+    void onPageLoaded(int pageNumber);
+}
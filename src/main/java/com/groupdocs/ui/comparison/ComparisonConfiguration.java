@@ -6,6 +6,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import javax.annotation.PostConstruct;
+import java.io.File;
 
 import static com.groupdocs.ui.config.DefaultDirectories.defaultComparisonDirectory;
 import static com.groupdocs.ui.config.DefaultDirectories.relativePathToAbsolute;
@@ -13,6 +14,8 @@ import static com.groupdocs.ui.config.DefaultDirectories.relativePathToAbsolute;
 @Component
 public class ComparisonConfiguration extends CommonConfiguration {
 
+    public static final String CACHE_DIRECTORY_NAME = ".cache";
+
     @Value("${comparison.filesDirectory}")
     private String filesDirectory;
 
@@ -22,9 +25,136 @@ public class ComparisonConfiguration extends CommonConfiguration {
     @Value("#{new Integer('${comparison.preloadResultPageCount}')}")
     private Integer preloadResultPageCount;
 
+    @Value("${comparison.cacheDirectory}")
+    private String cacheDirectory;
+
+    @Value("#{new Integer('${comparison.pageCacheSize}')}")
+    private Integer pageCacheSize;
+
+    @Value("#{new Boolean('${comparison.pageImageUrls}')}")
+    private Boolean pageImageUrls;
+
+    @Value("#{new Integer('${comparison.resultCacheSize}')}")
+    private Integer resultCacheSize;
+
+    @Value("#{new Integer('${comparison.resultCacheTtl}')}")
+    private Integer resultCacheTtl;
+
+    @Value("#{new Integer('${comparison.jobThreads}')}")
+    private Integer jobThreads;
+
+    @Value("#{new Integer('${comparison.jobQueueCapacity}')}")
+    private Integer jobQueueCapacity;
+
+    @Value("#{new Integer('${comparison.jobRetention}')}")
+    private Integer jobRetention;
+
+    @Value("#{new Integer('${comparison.documentInfoCacheSize}')}")
+    private Integer documentInfoCacheSize;
+
+    @Value("#{new Integer('${comparison.sessionPoolSize}')}")
+    private Integer sessionPoolSize;
+
+    @Value("#{new Integer('${comparison.sessionIdleTimeout}')}")
+    private Integer sessionIdleTimeout;
+
+    @Value("#{new Integer('${comparison.renderThreads}')}")
+    private Integer renderThreads;
+
+    @Value("#{new Integer('${comparison.maxUploadSize}')}")
+    private Integer maxUploadSize;
+
+    @Value("#{new Integer('${comparison.uploadExpiration}')}")
+    private Integer uploadExpiration;
+
+    @Value("#{new Boolean('${comparison.deduplicateUploads}')}")
+    private Boolean deduplicateUploads;
+
+    @Value("#{new Integer('${comparison.importThreads}')}")
+    private Integer importThreads;
+
+    @Value("#{new Integer('${comparison.importHostConnections}')}")
+    private Integer importHostConnections;
+
+    @Value("#{new Integer('${comparison.importQueueCapacity}')}")
+    private Integer importQueueCapacity;
+
+    @Value("#{new Integer('${comparison.importConnectTimeout}')}")
+    private Integer importConnectTimeout;
+
+    @Value("#{new Integer('${comparison.importReadTimeout}')}")
+    private Integer importReadTimeout;
+
+    @Value("#{new Integer('${comparison.importTimeout}')}")
+    private Integer importTimeout;
+
+    @Value("#{new Boolean('${comparison.fileTreeIndex}')}")
+    private Boolean fileTreeIndex;
+
+    @Value("#{new Integer('${comparison.fileTreeRescanInterval}')}")
+    private Integer fileTreeRescanInterval;
+
+    @Value("#{new Integer('${comparison.resultRetention}')}")
+    private Integer resultRetention;
+
+    @Value("#{new Integer('${comparison.resultDirectorySize}')}")
+    private Integer resultDirectorySize;
+
+    @Value("#{new Integer('${comparison.resultSweepInterval}')}")
+    private Integer resultSweepInterval;
+
+    @Value("${comparison.multiCompareMode}")
+    private String multiCompareMode;
+
+    @Value("#{new Integer('${comparison.multiCompareThreads}')}")
+    private Integer multiCompareThreads;
+
+    @Value("#{new Integer('${comparison.batchCompareParallelism}')}")
+    private Integer batchCompareParallelism;
+
+    @Value("#{new Integer('${comparison.changeIndexSize}')}")
+    private Integer changeIndexSize;
+
+    @Value("#{new Boolean('${comparison.inlineChanges}')}")
+    private Boolean inlineChanges;
+
+    @Value("#{new Integer('${comparison.thumbnailWidth}')}")
+    private Integer thumbnailWidth;
+
+    @Value("#{new Integer('${comparison.thumbnailCacheSize}')}")
+    private Integer thumbnailCacheSize;
+
+    @Value("#{new Integer('${comparison.jpegQuality}')}")
+    private Integer jpegQuality;
+
+    @Value("#{new Integer('${comparison.tileSize}')}")
+    private Integer tileSize;
+
+    @Value("#{new Integer('${comparison.tileMaxScale}')}")
+    private Integer tileMaxScale;
+
+    @Value("#{new Integer('${comparison.tileCacheSize}')}")
+    private Integer tileCacheSize;
+
+    @Value("#{new Integer('${comparison.tileRenderThreads}')}")
+    private Integer tileRenderThreads;
+
+    @Value("#{new Integer('${comparison.prefetchPages}')}")
+    private Integer prefetchPages;
+
+    @Value("#{new Integer('${comparison.changeCacheSize}')}")
+    private Integer changeCacheSize;
+
+    @Value("#{new Integer('${comparison.importWait}')}")
+    private Integer importWait;
+
+    @Value("#{new Integer('${comparison.importRetention}')}")
+    private Integer importRetention;
+
     @PostConstruct
     public void init() {
         this.filesDirectory = StringUtils.isEmpty(this.filesDirectory) ? defaultComparisonDirectory() : relativePathToAbsolute(this.filesDirectory);
+        this.cacheDirectory = StringUtils.isEmpty(this.cacheDirectory) ? this.filesDirectory + File.separator + CACHE_DIRECTORY_NAME : relativePathToAbsolute(this.cacheDirectory);
     }
 
     public String getFilesDirectory() {
@@ -51,6 +181,342 @@ public class ComparisonConfiguration extends CommonConfiguration {
         this.preloadResultPageCount = preloadResultPageCount;
     }
 
+    public String getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    public void setCacheDirectory(String cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    public Integer getPageCacheSize() {
+        return pageCacheSize;
+    }
+
+    public void setPageCacheSize(Integer pageCacheSize) {
+        this.pageCacheSize = pageCacheSize;
+    }
+
+    public boolean isPageImageUrls() {
+        return pageImageUrls;
+    }
+
+    public void setPageImageUrls(boolean pageImageUrls) {
+        this.pageImageUrls = pageImageUrls;
+    }
+
+    public Integer getResultCacheSize() {
+        return resultCacheSize;
+    }
+
+    public void setResultCacheSize(Integer resultCacheSize) {
+        this.resultCacheSize = resultCacheSize;
+    }
+
+    public Integer getResultCacheTtl() {
+        return resultCacheTtl;
+    }
+
+    public void setResultCacheTtl(Integer resultCacheTtl) {
+        this.resultCacheTtl = resultCacheTtl;
+    }
+
+    public Integer getJobThreads() {
+        return jobThreads;
+    }
+
+    public void setJobThreads(Integer jobThreads) {
+        this.jobThreads = jobThreads;
+    }
+
+    public Integer getJobQueueCapacity() {
+        return jobQueueCapacity;
+    }
+
+    public void setJobQueueCapacity(Integer jobQueueCapacity) {
+        this.jobQueueCapacity = jobQueueCapacity;
+    }
+
+    public Integer getJobRetention() {
+        return jobRetention;
+    }
+
+    public void setJobRetention(Integer jobRetention) {
+        this.jobRetention = jobRetention;
+    }
+
+    public Integer getDocumentInfoCacheSize() {
+        return documentInfoCacheSize;
+    }
+
+    public void setDocumentInfoCacheSize(Integer documentInfoCacheSize) {
+        this.documentInfoCacheSize = documentInfoCacheSize;
+    }
+
+    public Integer getSessionPoolSize() {
+        return sessionPoolSize;
+    }
+
+    public void setSessionPoolSize(Integer sessionPoolSize) {
+        this.sessionPoolSize = sessionPoolSize;
+    }
+
+    public Integer getSessionIdleTimeout() {
+        return sessionIdleTimeout;
+    }
+
+    public void setSessionIdleTimeout(Integer sessionIdleTimeout) {
+        this.sessionIdleTimeout = sessionIdleTimeout;
+    }
+
+    public Integer getRenderThreads() {
+        return renderThreads;
+    }
+
+    public void setRenderThreads(Integer renderThreads) {
+        this.renderThreads = renderThreads;
+    }
+
+    public Integer getMaxUploadSize() {
+        return maxUploadSize;
+    }
+
+    public void setMaxUploadSize(Integer maxUploadSize) {
+        this.maxUploadSize = maxUploadSize;
+    }
+
+    public Integer getUploadExpiration() {
+        return uploadExpiration;
+    }
+
+    public void setUploadExpiration(Integer uploadExpiration) {
+        this.uploadExpiration = uploadExpiration;
+    }
+
+    public boolean isDeduplicateUploads() {
+        return deduplicateUploads;
+    }
+
+    public void setDeduplicateUploads(boolean deduplicateUploads) {
+        this.deduplicateUploads = deduplicateUploads;
+    }
+
+    public Integer getImportThreads() {
+        return importThreads;
+    }
+
+    public void setImportThreads(Integer importThreads) {
+        this.importThreads = importThreads;
+    }
+
+    public Integer getImportHostConnections() {
+        return importHostConnections;
+    }
+
+    public void setImportHostConnections(Integer importHostConnections) {
+        this.importHostConnections = importHostConnections;
+    }
+
+    public Integer getImportQueueCapacity() {
+        return importQueueCapacity;
+    }
+
+    public void setImportQueueCapacity(Integer importQueueCapacity) {
+        this.importQueueCapacity = importQueueCapacity;
+    }
+
+    public Integer getImportConnectTimeout() {
+        return importConnectTimeout;
+    }
+
+    public void setImportConnectTimeout(Integer importConnectTimeout) {
+        this.importConnectTimeout = importConnectTimeout;
+    }
+
+    public Integer getImportReadTimeout() {
+        return importReadTimeout;
+    }
+
+    public void setImportReadTimeout(Integer importReadTimeout) {
+        this.importReadTimeout = importReadTimeout;
+    }
+
+    public Integer getImportTimeout() {
+        return importTimeout;
+    }
+
+    public void setImportTimeout(Integer importTimeout) {
+        this.importTimeout = importTimeout;
+    }
+
+    public boolean isFileTreeIndex() {
+        return fileTreeIndex;
+    }
+
+    public void setFileTreeIndex(boolean fileTreeIndex) {
+        this.fileTreeIndex = fileTreeIndex;
+    }
+
+    public Integer getFileTreeRescanInterval() {
+        return fileTreeRescanInterval;
+    }
+
+    public void setFileTreeRescanInterval(Integer fileTreeRescanInterval) {
+        this.fileTreeRescanInterval = fileTreeRescanInterval;
+    }
+
+    public Integer getResultRetention() {
+        return resultRetention;
+    }
+
+    public void setResultRetention(Integer resultRetention) {
+        this.resultRetention = resultRetention;
+    }
+
+    public Integer getResultDirectorySize() {
+        return resultDirectorySize;
+    }
+
+    public void setResultDirectorySize(Integer resultDirectorySize) {
+        this.resultDirectorySize = resultDirectorySize;
+    }
+
+    public Integer getResultSweepInterval() {
+        return resultSweepInterval;
+    }
+
+    public void setResultSweepInterval(Integer resultSweepInterval) {
+        this.resultSweepInterval = resultSweepInterval;
+    }
+
+    public String getMultiCompareMode() {
+        return multiCompareMode;
+    }
+
+    public void setMultiCompareMode(String multiCompareMode) {
+        this.multiCompareMode = multiCompareMode;
+    }
+
+    public Integer getMultiCompareThreads() {
+        return multiCompareThreads;
+    }
+
+    public void setMultiCompareThreads(Integer multiCompareThreads) {
+        this.multiCompareThreads = multiCompareThreads;
+    }
+
+    public Integer getBatchCompareParallelism() {
+        return batchCompareParallelism;
+    }
+
+    public void setBatchCompareParallelism(Integer batchCompareParallelism) {
+        this.batchCompareParallelism = batchCompareParallelism;
+    }
+
+    public Integer getChangeIndexSize() {
+        return changeIndexSize;
+    }
+
+    public void setChangeIndexSize(Integer changeIndexSize) {
+        this.changeIndexSize = changeIndexSize;
+    }
+
+    public boolean isInlineChanges() {
+        return inlineChanges;
+    }
+
+    public void setInlineChanges(boolean inlineChanges) {
+        this.inlineChanges = inlineChanges;
+    }
+
+    public Integer getThumbnailWidth() {
+        return thumbnailWidth;
+    }
+
+    public void setThumbnailWidth(Integer thumbnailWidth) {
+        this.thumbnailWidth = thumbnailWidth;
+    }
+
+    public Integer getThumbnailCacheSize() {
+        return thumbnailCacheSize;
+    }
+
+    public void setThumbnailCacheSize(Integer thumbnailCacheSize) {
+        this.thumbnailCacheSize = thumbnailCacheSize;
+    }
+
+    public Integer getJpegQuality() {
+        return jpegQuality;
+    }
+
+    public void setJpegQuality(Integer jpegQuality) {
+        this.jpegQuality = jpegQuality;
+    }
+
+    public Integer getTileSize() {
+        return tileSize;
+    }
+
+    public void setTileSize(Integer tileSize) {
+        this.tileSize = tileSize;
+    }
+
+    public Integer getTileMaxScale() {
+        return tileMaxScale;
+    }
+
+    public void setTileMaxScale(Integer tileMaxScale) {
+        this.tileMaxScale = tileMaxScale;
+    }
+
+    public Integer getTileCacheSize() {
+        return tileCacheSize;
+    }
+
+    public void setTileCacheSize(Integer tileCacheSize) {
+        this.tileCacheSize = tileCacheSize;
+    }
+
+    public Integer getTileRenderThreads() {
+        return tileRenderThreads;
+    }
+
+    public void setTileRenderThreads(Integer tileRenderThreads) {
+        this.tileRenderThreads = tileRenderThreads;
+    }
+
+    public Integer getPrefetchPages() {
+        return prefetchPages;
+    }
+
+    public void setPrefetchPages(Integer prefetchPages) {
+        this.prefetchPages = prefetchPages;
+    }
+
+    public Integer getChangeCacheSize() {
+        return changeCacheSize;
+    }
+
+    public void setChangeCacheSize(Integer changeCacheSize) {
+        this.changeCacheSize = changeCacheSize;
+    }
+
+    public Integer getImportWait() {
+        return importWait;
+    }
+
+    public void setImportWait(Integer importWait) {
+        this.importWait = importWait;
+    }
+
+    public Integer getImportRetention() {
+        return importRetention;
+    }
+
+    public void setImportRetention(Integer importRetention) {
+        this.importRetention = importRetention;
+    }
+
     @Override
     public String toString() {
         return super.toString() +
@@ -58,6 +524,48 @@ public class ComparisonConfiguration extends CommonConfiguration {
                 "filesDirectory='" + filesDirectory + '\'' +
                 ", resultDirectory='" + resultDirectory + '\'' +
                 ", preloadResultPageCount=" + preloadResultPageCount +
+                ", cacheDirectory='" + cacheDirectory + '\'' +
+                ", pageCacheSize=" + pageCacheSize +
+                ", pageImageUrls=" + pageImageUrls +
+                ", resultCacheSize=" + resultCacheSize +
+                ", resultCacheTtl=" + resultCacheTtl +
+                ", jobThreads=" + jobThreads +
+                ", jobQueueCapacity=" + jobQueueCapacity +
+                ", jobRetention=" + jobRetention +
+                ", documentInfoCacheSize=" + documentInfoCacheSize +
+                ", sessionPoolSize=" + sessionPoolSize +
+                ", sessionIdleTimeout=" + sessionIdleTimeout +
+                ", renderThreads=" + renderThreads +
+                ", maxUploadSize=" + maxUploadSize +
+                ", uploadExpiration=" + uploadExpiration +
+                ", deduplicateUploads=" + deduplicateUploads +
+                ", importThreads=" + importThreads +
+                ", importHostConnections=" + importHostConnections +
+                ", importQueueCapacity=" + importQueueCapacity +
+                ", importConnectTimeout=" + importConnectTimeout +
+                ", importReadTimeout=" + importReadTimeout +
+                ", importTimeout=" + importTimeout +
+                ", fileTreeIndex=" + fileTreeIndex +
+                ", fileTreeRescanInterval=" + fileTreeRescanInterval +
+                ", resultRetention=" + resultRetention +
+                ", resultDirectorySize=" + resultDirectorySize +
+                ", resultSweepInterval=" + resultSweepInterval +
+                ", multiCompareMode='" + multiCompareMode + '\'' +
+                ", multiCompareThreads=" + multiCompareThreads +
+                ", batchCompareParallelism=" + batchCompareParallelism +
+                ", changeIndexSize=" + changeIndexSize +
+                ", inlineChanges=" + inlineChanges +
+                ", thumbnailWidth=" + thumbnailWidth +
+                ", thumbnailCacheSize=" + thumbnailCacheSize +
+                ", jpegQuality=" + jpegQuality +
+                ", tileSize=" + tileSize +
+                ", tileMaxScale=" + tileMaxScale +
+                ", tileCacheSize=" + tileCacheSize +
+                ", tileRenderThreads=" + tileRenderThreads +
+                ", prefetchPages=" + prefetchPages +
+                ", changeCacheSize=" + changeCacheSize +
+                ", importWait=" + importWait +
+                ", importRetention=" + importRetention +
                 '}';
     }
 }
@@ -1,32 +1,67 @@
 package com.groupdocs.ui.comparison;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.groupdocs.ui.comparison.batch.BatchCompareService;
+import com.groupdocs.ui.comparison.changes.ChangeStore;
+import com.groupdocs.ui.comparison.changes.CompactChanges;
+import com.groupdocs.ui.comparison.job.CompareJobService;
+import com.groupdocs.ui.comparison.model.request.BatchCompareRequest;
+import com.groupdocs.ui.comparison.model.request.ChangeQueryRequest;
 import com.groupdocs.ui.comparison.model.request.CompareRequest;
-import com.groupdocs.ui.comparison.model.response.CompareResultResponse;
+import com.groupdocs.ui.comparison.model.request.FileTreePageRequest;
+import com.groupdocs.ui.comparison.model.request.ImportRequest;
+import com.groupdocs.ui.comparison.model.request.LoadPageTileRequest;
+import com.groupdocs.ui.comparison.model.response.BatchCompareResultEntity;
+import com.groupdocs.ui.comparison.model.response.ChangeQueryEntity;
+import com.groupdocs.ui.comparison.model.response.CompareJobEntity;
+import com.groupdocs.ui.comparison.model.response.FileTreePageEntity;
+import com.groupdocs.ui.comparison.model.response.ImportStatusEntity;
+import com.groupdocs.ui.comparison.model.response.MultiCompareResultResponse;
+import com.groupdocs.ui.comparison.model.response.PageTilesEntity;
+import com.groupdocs.ui.comparison.model.response.ResultDirectoryStatsEntity;
+import com.groupdocs.ui.comparison.render.PageImageOptions;
+import com.groupdocs.ui.comparison.result.CompareResultWriter;
+import com.groupdocs.ui.comparison.result.ResultDirectorySweeper;
+import com.groupdocs.ui.comparison.upload.ChunkedUploadService;
+import com.groupdocs.ui.comparison.upload.ContentStore;
+import com.groupdocs.ui.comparison.upload.UrlImportService;
 import com.groupdocs.ui.config.GlobalConfiguration;
 import com.groupdocs.ui.exception.TotalGroupDocsException;
 import com.groupdocs.ui.model.request.FileTreeRequest;
+import com.groupdocs.ui.model.request.InitUploadRequest;
 import com.groupdocs.ui.model.request.LoadDocumentPageRequest;
 import com.groupdocs.ui.model.response.FileDescriptionEntity;
 import com.groupdocs.ui.model.response.LoadDocumentEntity;
 import com.groupdocs.ui.model.response.PageDescriptionEntity;
+import com.groupdocs.ui.model.response.UploadStatusEntity;
 import com.groupdocs.ui.model.response.UploadedDocumentEntity;
+import com.groupdocs.ui.util.FileDownloads;
+import com.groupdocs.ui.util.FileHashes;
 import com.groupdocs.ui.util.Utils;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.annotation.Nullable;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedInputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStream;
+import java.io.*;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +74,18 @@ import static org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE;
 @RequestMapping("/comparison")
 public class ComparisonController {
     private static final Logger logger = LoggerFactory.getLogger(ComparisonController.class);
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    /**
+     * Header with the document password of GET requests, the password is never taken from the url,
+     * so it is not written to access logs, browser history and Referer headers
+     */
+    public static final String PASSWORD_HEADER = "X-Document-Password";
+    private static final MediaType COMPACT_CHANGES_JSON = MediaType.parseMediaType(CompactChanges.JSON_VALUE);
+    private static final MediaType COMPACT_CHANGES_BINARY = MediaType.parseMediaType(CompactChanges.BINARY_VALUE);
+    /**
+     * Formats of changes, the first one is used when any format is accepted
+     */
+    private static final List<MediaType> CHANGES_MEDIA_TYPES = Arrays.asList(MediaType.APPLICATION_JSON, COMPACT_CHANGES_JSON, COMPACT_CHANGES_BINARY);
 
     @Autowired
     private GlobalConfiguration globalConfiguration;
@@ -46,6 +93,33 @@ public class ComparisonController {
     @Autowired
     private ComparisonService comparisonService;
 
+    @Autowired
+    private CompareJobService compareJobService;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private ContentStore contentStore;
+
+    @Autowired
+    private UrlImportService urlImportService;
+
+    @Autowired
+    private ResultDirectorySweeper resultDirectorySweeper;
+
+    @Autowired
+    private BatchCompareService batchCompareService;
+
+    @Autowired
+    private CompareResultWriter compareResultWriter;
+
+    @Autowired
+    private ChangeStore changeStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @RequestMapping(method = RequestMethod.GET, value = "/loadConfig", produces = APPLICATION_JSON_VALUE)
     @ResponseBody
     public ComparisonConfiguration loadConfig() {
@@ -79,68 +153,538 @@ public class ComparisonController {
         return comparisonService.loadFiles(fileTreeRequest);
     }
 
+    /**
+     * Get the page of files and folders, the first page contains the total count
+     *
+     * @param fileTreePageRequest request with path to directory, filter, order and cursor of the page
+     * @return page of files and folders
+     */
+    @RequestMapping(method = RequestMethod.POST, value = "/loadFileTreePage", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public FileTreePageEntity loadFileTreePage(@RequestBody FileTreePageRequest fileTreePageRequest) {
+        return comparisonService.loadFilesPage(fileTreePageRequest);
+    }
+
     /**
      * Download results
+     * <p>
+     * Supports HEAD, single and multiple ranges and conditional requests
      *
      * @param documentGuid unique key of results
      */
-    @RequestMapping(method = RequestMethod.GET, value = "/downloadDocument")
+    @RequestMapping(method = {RequestMethod.GET, RequestMethod.HEAD}, value = "/downloadDocument")
     public void downloadDocument(@RequestParam(name = "guid") String documentGuid,
+                                 HttpServletRequest request,
                                  HttpServletResponse response) {
-        File file = new File(documentGuid);
-        // set response content info
-        Utils.addFileDownloadHeaders(response, file.getName(), file.length());
-        // download the document
-        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(documentGuid));
-             ServletOutputStream outputStream = response.getOutputStream()) {
+        // the result is not removed while it is downloaded
+        try (ResultDirectorySweeper.Pin pin = resultDirectorySweeper.pin(documentGuid)) {
+            File file = new File(documentGuid);
+            if (!file.isFile()) {
+                throw new TotalGroupDocsException("Document is not found");
+            }
+            // download the document
+            try {
+                FileDownloads.sendFile(file, request, response);
+            } catch (Exception ex) {
+                logger.error("Exception in downloading document", ex);
+                throw new TotalGroupDocsException(ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Get state of the result directory cleanup
+     *
+     * @return count and size of results, removed results since start
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/resultDirectory/stats", produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResultDirectoryStatsEntity getResultDirectoryStats() {
+        return resultDirectorySweeper.getStats();
+    }
+
+    /**
+     * Get page image
+     *
+     * @param documentId url-safe document id
+     * @param page       one-based page number
+     * @param format     image format, png or jpg
+     * @param password   document password from the X-Document-Password header
+     * @param width      target width of the image, by default the page is not scaled
+     * @param scale      scale of the page, used when the width is not set
+     * @param quality    JPEG quality from 1 to 100
+     * @param thumbnail  return the thumbnail of the page
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/pages/{documentId}/{page}.{format}")
+    public void loadPageImage(@PathVariable("documentId") String documentId,
+                              @PathVariable("page") int page,
+                              @PathVariable("format") String format,
+                              @RequestHeader(value = PASSWORD_HEADER, required = false) String password,
+                              @RequestParam(value = "width", required = false) Integer width,
+                              @RequestParam(value = "scale", required = false) Double scale,
+                              @RequestParam(value = "quality", required = false) Integer quality,
+                              @RequestParam(value = "thumbnail", defaultValue = "false") boolean thumbnail,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        final String documentGuid = Utils.decodeDocumentId(documentId);
+        // images of other sizes and formats are different entities of the same page
+        final String variant = page + "-" + (thumbnail ? "t" : "w" + width + "-s" + scale) + "-q" + quality + "." + PageImageOptions.getFormat(format);
+        if (!checkImageRequest(documentGuid, format, password, variant, request, response)) {
+            return;
+        }
+
+        LoadDocumentPageRequest loadDocumentPageRequest = new LoadDocumentPageRequest();
+        loadDocumentPageRequest.setGuid(documentGuid);
+        loadDocumentPageRequest.setPassword(password);
+        loadDocumentPageRequest.setPage(page);
+        loadDocumentPageRequest.setFormat(format);
+        loadDocumentPageRequest.setWidth(width);
+        loadDocumentPageRequest.setScale(scale);
+        loadDocumentPageRequest.setQuality(quality);
+        loadDocumentPageRequest.setThumbnail(thumbnail);
+        // the cached image can be evicted before it is opened, then it is rendered again
+        FileInputStream inputStream = null;
+        for (int attempt = 0; inputStream == null; attempt++) {
+            File image = comparisonService.loadDocumentPageImage(loadDocumentPageRequest);
+            try {
+                inputStream = new FileInputStream(image);
+            } catch (FileNotFoundException ex) {
+                if (attempt > 0) {
+                    throw new TotalGroupDocsException(ex.getMessage(), ex);
+                }
+            }
+        }
+        writeImage(inputStream, format, response);
+    }
 
-            IOUtils.copyLarge(inputStream, outputStream);
-        } catch (Exception ex) {
-            logger.error("Exception in downloading document", ex);
-            throw new TotalGroupDocsException(ex.getMessage(), ex);
+    /**
+     * Get zoom levels and tile counts of the page
+     *
+     * @param documentId url-safe document id
+     * @param page       one-based page number
+     * @param password   document password from the X-Document-Password header
+     * @return tile pyramid of the page
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/tiles/{documentId}/{page}", produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public PageTilesEntity loadPageTiles(@PathVariable("documentId") String documentId,
+                                         @PathVariable("page") int page,
+                                         @RequestHeader(value = PASSWORD_HEADER, required = false) String password) {
+        LoadDocumentPageRequest loadDocumentPageRequest = new LoadDocumentPageRequest();
+        loadDocumentPageRequest.setGuid(getPageImageDocument(documentId));
+        loadDocumentPageRequest.setPassword(password);
+        loadDocumentPageRequest.setPage(page);
+        return comparisonService.loadPageTiles(loadDocumentPageRequest);
+    }
+
+    /**
+     * Get tile of the page
+     * <p>
+     * Tiles are cached like page images, the client loads only tiles of its viewport
+     *
+     * @param documentId url-safe document id
+     * @param page       one-based page number
+     * @param level      zero-based zoom level
+     * @param column     zero-based column of the tile
+     * @param row        zero-based row of the tile
+     * @param format     image format, png or jpg
+     * @param password   document password from the X-Document-Password header
+     * @param quality    JPEG quality from 1 to 100
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/tiles/{documentId}/{page}/{level}/{column}_{row}.{format}")
+    public void loadPageTile(@PathVariable("documentId") String documentId,
+                             @PathVariable("page") int page,
+                             @PathVariable("level") int level,
+                             @PathVariable("column") int column,
+                             @PathVariable("row") int row,
+                             @PathVariable("format") String format,
+                             @RequestHeader(value = PASSWORD_HEADER, required = false) String password,
+                             @RequestParam(value = "quality", required = false) Integer quality,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        final String documentGuid = Utils.decodeDocumentId(documentId);
+        final ComparisonConfiguration comparisonConfiguration = comparisonService.getComparisonConfiguration();
+        // tiles of other pyramids are different entities
+        final String variant = page + "-" + comparisonConfiguration.getTileSize() + "x" + comparisonConfiguration.getTileMaxScale() + "-" +
+                level + "-" + column + "_" + row + "-q" + quality + "." + PageImageOptions.getFormat(format);
+        if (!checkImageRequest(documentGuid, format, password, variant, request, response)) {
+            return;
+        }
+
+        LoadPageTileRequest loadPageTileRequest = new LoadPageTileRequest();
+        loadPageTileRequest.setGuid(documentGuid);
+        loadPageTileRequest.setPassword(password);
+        loadPageTileRequest.setPage(page);
+        loadPageTileRequest.setLevel(level);
+        loadPageTileRequest.setColumn(column);
+        loadPageTileRequest.setRow(row);
+        loadPageTileRequest.setFormat(format);
+        loadPageTileRequest.setQuality(quality);
+        // the cached tile can be evicted before it is opened, then the level is rendered again
+        FileInputStream inputStream = null;
+        for (int attempt = 0; inputStream == null; attempt++) {
+            File tile = comparisonService.loadPageTile(loadPageTileRequest);
+            try {
+                inputStream = new FileInputStream(tile);
+            } catch (FileNotFoundException ex) {
+                if (attempt > 0) {
+                    throw new TotalGroupDocsException(ex.getMessage(), ex);
+                }
+            }
+        }
+        writeImage(inputStream, format, response);
+    }
+
+    /**
+     * Check access to the document and set caching headers of its image, the password
+     * is checked before the ETag
+     * <p>
+     * Images of result documents never change, so they can be cached for a long time,
+     * images of other documents are revalidated with the ETag
+     *
+     * @param documentGuid path to document
+     * @param format       image format
+     * @param password     document password
+     * @param variant      page, size and format of the image
+     * @return false if the response is already sent
+     */
+    private boolean checkImageRequest(String documentGuid, String format, String password, String variant,
+                                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        final ComparisonConfiguration comparisonConfiguration = comparisonService.getComparisonConfiguration();
+        if (!isPageImageDocument(documentGuid) || PageImageOptions.getFormat(format) == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return false;
+        }
+        // cached images of protected documents are not confirmed without the password
+        comparisonService.checkDocumentAccess(documentGuid, password);
+
+        final boolean isResult = Utils.isInDirectories(documentGuid, comparisonConfiguration.getResultDirectory());
+        if (isResult) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+        } else {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, StringUtils.isEmpty(password) ? "no-cache" : "private, no-cache");
+            // the password is not a part of the url, so caches tell images of other passwords by the header
+            response.addHeader(HttpHeaders.VARY, PASSWORD_HEADER);
+        }
+        final String eTag = "\"" + FileHashes.sha256(new File(documentGuid)) + "-" + variant + "\"";
+        return !new ServletWebRequest(request, response).checkNotModified(eTag);
+    }
+
+    private boolean isPageImageDocument(String documentGuid) {
+        final ComparisonConfiguration comparisonConfiguration = comparisonService.getComparisonConfiguration();
+        return Utils.isInDirectories(documentGuid, comparisonConfiguration.getFilesDirectory(), comparisonConfiguration.getResultDirectory())
+                && new File(documentGuid).isFile();
+    }
+
+    private String getPageImageDocument(String documentId) {
+        final String documentGuid = Utils.decodeDocumentId(documentId);
+        if (!isPageImageDocument(documentGuid)) {
+            throw new TotalGroupDocsException("Document is not found");
+        }
+        return documentGuid;
+    }
+
+    private static void writeImage(FileInputStream inputStream, String format, HttpServletResponse response) throws IOException {
+        try (FileInputStream imageStream = inputStream;
+             ServletOutputStream outputStream = response.getOutputStream()) {
+            response.setContentType(PageImageOptions.JPEG.equals(PageImageOptions.getFormat(format))
+                    ? MediaType.IMAGE_JPEG_VALUE : MediaType.IMAGE_PNG_VALUE);
+            response.setContentLengthLong(imageStream.getChannel().size());
+            IOUtils.copyLarge(imageStream, outputStream);
         }
     }
 
     /**
      * Upload document
+     * <p>
+     * A document which is imported by url longer than the configured wait is not returned,
+     * the response is 202 with the state of the import, which is polled by its id
      *
-     * @return uploaded document object (the object contains uploaded document guid)
+     * @return uploaded document object (the object contains uploaded document guid) or state of the import
      */
     @RequestMapping(method = RequestMethod.POST, value = "/uploadDocument",
             consumes = MULTIPART_FORM_DATA_VALUE, produces = APPLICATION_JSON_VALUE)
-    @ResponseBody
-    public UploadedDocumentEntity uploadDocument(@Nullable @RequestParam("file") MultipartFile content,
-                                                 @RequestParam(value = "url", required = false) String url,
-                                                 @RequestParam("rewrite") Boolean rewrite) {
+    public ResponseEntity<?> uploadDocument(@Nullable @RequestParam("file") MultipartFile content,
+                                            @RequestParam(value = "url", required = false) String url,
+                                            @RequestParam("rewrite") Boolean rewrite) {
+        ComparisonConfiguration comparisonConfiguration = comparisonService.getComparisonConfiguration();
         // get documents storage path
-        String documentStoragePath = comparisonService.getComparisonConfiguration().getFilesDirectory();
+        String documentStoragePath = comparisonConfiguration.getFilesDirectory();
         // save the file
-        String pathname = uploadFile(documentStoragePath, content, url, rewrite);
+        String pathname;
+        if (!StringUtils.isEmpty(url)) {
+            // the document is downloaded by the import pool, the request waits only for a short time
+            ImportStatusEntity importStatus = urlImportService.importFile(url, documentStoragePath, rewrite);
+            if (!UrlImportService.DONE.equals(importStatus.getStatus())) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(importStatus);
+            }
+            pathname = importStatus.getGuid();
+        } else if (comparisonConfiguration.isDeduplicateUploads()) {
+            pathname = contentStore.uploadFile(documentStoragePath, content, rewrite);
+        } else {
+            pathname = uploadFile(documentStoragePath, content, null, rewrite);
+        }
         // create response data
         UploadedDocumentEntity uploadedDocument = new UploadedDocumentEntity();
         uploadedDocument.setGuid(pathname);
-        return uploadedDocument;
+        return ResponseEntity.ok(uploadedDocument);
+    }
+
+    /**
+     * Start import of the document by url in the background
+     *
+     * @param importRequest url of the document
+     * @return state of the import
+     */
+    @RequestMapping(method = RequestMethod.POST, value = "/imports", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ImportStatusEntity submitImport(@RequestBody ImportRequest importRequest) {
+        String documentStoragePath = comparisonService.getComparisonConfiguration().getFilesDirectory();
+        return urlImportService.submit(importRequest.getUrl(), documentStoragePath, importRequest.isRewrite());
+    }
+
+    /**
+     * Get state of the import, the state contains guid of the imported document
+     *
+     * @param importId unique key of the import
+     * @return state of the import
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/imports/{importId}", produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ImportStatusEntity getImport(@PathVariable("importId") String importId) {
+        return urlImportService.getStatus(importId);
+    }
+
+    /**
+     * Start resumable upload of the document by chunks
+     *
+     * @param initUploadRequest name, size and optional SHA-256 checksum of the document
+     * @return upload status
+     */
+    @RequestMapping(method = RequestMethod.POST, value = "/uploads", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public UploadStatusEntity initUpload(@RequestBody InitUploadRequest initUploadRequest) {
+        return chunkedUploadService.init(initUploadRequest);
+    }
+
+    /**
+     * Upload the chunk of the document, the request body is the chunk content
+     *
+     * @param uploadId unique key of the upload
+     * @param offset   chunk offset, not greater than the count of already received bytes
+     * @return upload status
+     */
+    @RequestMapping(method = RequestMethod.PUT, value = "/uploads/{uploadId}", produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public UploadStatusEntity uploadChunk(@PathVariable("uploadId") String uploadId,
+                                          @RequestParam("offset") long offset,
+                                          HttpServletRequest request) throws IOException {
+        return chunkedUploadService.writeChunk(uploadId, offset, request.getInputStream());
+    }
+
+    /**
+     * Get status of the upload to resume it
+     *
+     * @param uploadId unique key of the upload
+     * @return upload status
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/uploads/{uploadId}", produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public UploadStatusEntity getUpload(@PathVariable("uploadId") String uploadId) {
+        return chunkedUploadService.getStatus(uploadId);
+    }
+
+    /**
+     * Finish the upload
+     *
+     * @param uploadId unique key of the upload
+     * @return uploaded document object (the object contains uploaded document guid)
+     */
+    @RequestMapping(method = RequestMethod.POST, value = "/uploads/{uploadId}/complete", produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public UploadedDocumentEntity completeUpload(@PathVariable("uploadId") String uploadId,
+                                                 @RequestParam(value = "rewrite", defaultValue = "false") Boolean rewrite) {
+        String documentStoragePath = comparisonService.getComparisonConfiguration().getFilesDirectory();
+        return chunkedUploadService.complete(uploadId, documentStoragePath, rewrite);
+    }
+
+    /**
+     * Cancel the upload
+     *
+     * @param uploadId unique key of the upload
+     */
+    @RequestMapping(method = RequestMethod.DELETE, value = "/uploads/{uploadId}")
+    @ResponseBody
+    public void cancelUpload(@PathVariable("uploadId") String uploadId) {
+        chunkedUploadService.cancel(uploadId);
     }
 
     /**
      * Compare files from local storage
+     * <p>
+     * The response with compare results is written page by page
      *
      * @param compareRequest request with paths to files
-     * @return response with compare results
      */
     @RequestMapping(method = RequestMethod.POST, value = "/compare", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
-    @ResponseBody
-    public CompareResultResponse compare(@RequestBody CompareRequest compareRequest) {
+    public void compare(@RequestBody CompareRequest compareRequest,
+                        HttpServletResponse response) throws IOException {
         // check formats
         if (comparisonService.checkFiles(compareRequest)) {
             // compare
-            return comparisonService.compare(compareRequest);
+            compareResultWriter.write(comparisonService.compare(compareRequest), response);
         } else {
             logger.error("Document types are different");
             throw new TotalGroupDocsException("Document types are different");
         }
     }
 
+    /**
+     * Get the page of changes of the comparison result, the first page contains the total count
+     * and counts of all changes by page, type and action
+     * <p>
+     * Changes are returned as JSON objects or in the compact JSON or binary format of
+     * {@link CompactChanges}, the format is chosen by the Accept header
+     *
+     * @param changeQueryRequest request with result guid, page range, type, action and cursor of the page
+     * @param accept             accepted media types
+     */
+    @RequestMapping(method = RequestMethod.POST, value = "/changes", consumes = APPLICATION_JSON_VALUE,
+            produces = {APPLICATION_JSON_VALUE, CompactChanges.JSON_VALUE, CompactChanges.BINARY_VALUE})
+    public void queryChanges(@RequestBody ChangeQueryRequest changeQueryRequest,
+                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                             HttpServletResponse response) throws IOException {
+        MediaType mediaType = getChangesMediaType(accept);
+        if (MediaType.APPLICATION_JSON.equals(mediaType)) {
+            ChangeQueryEntity changeQueryEntity = changeStore.query(changeQueryRequest);
+            response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+            try (OutputStream outputStream = response.getOutputStream()) {
+                objectMapper.writeValue(outputStream, changeQueryEntity);
+            }
+            return;
+        }
+        // columns are small, so compact pages can be larger
+        ChangeQueryEntity changeQueryEntity = changeStore.query(changeQueryRequest, CompactChanges.MAX_PAGE_SIZE);
+        response.setContentType(mediaType.toString());
+        if (COMPACT_CHANGES_JSON.equals(mediaType)) {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+                CompactChanges.writeJson(changeQueryEntity, generator);
+            }
+        } else {
+            try (OutputStream outputStream = new BufferedOutputStream(response.getOutputStream())) {
+                CompactChanges.writeBinary(changeQueryEntity, outputStream);
+            }
+        }
+    }
+
+    /**
+     * Choose the format of changes, JSON objects if no other format is accepted
+     */
+    private static MediaType getChangesMediaType(String accept) {
+        if (StringUtils.isEmpty(accept)) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            for (MediaType mediaType : CHANGES_MEDIA_TYPES) {
+                if (acceptedType.isCompatibleWith(mediaType)) {
+                    return mediaType;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Compare one file from local storage with several files
+     * <p>
+     * The response with compare results for every target or with one combined result is written page by page
+     *
+     * @param compareRequest request with paths to the source file and target files
+     */
+    @RequestMapping(method = RequestMethod.POST, value = "/multiCompare", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public void multiCompare(@RequestBody CompareRequest compareRequest,
+                             HttpServletResponse response) throws IOException {
+        // check formats
+        if (comparisonService.checkFiles(compareRequest)) {
+            MultiCompareResultResponse multiCompareResultResponse = comparisonService.multiCompare(compareRequest);
+            compareResultWriter.write(multiCompareResultResponse, response);
+        } else {
+            logger.error("Document types are different");
+            throw new TotalGroupDocsException("Document types are different");
+        }
+    }
+
+    /**
+     * Compare pairs of files from local storage
+     * <p>
+     * Summaries of results are streamed as newline delimited JSON in the order of completion,
+     * failed pairs are reported with their error and do not stop others
+     *
+     * @param batchCompareRequest request with pairs of paths to files
+     */
+    @RequestMapping(method = RequestMethod.POST, value = "/batch", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_NDJSON_VALUE)
+    public void batchCompare(@RequestBody BatchCompareRequest batchCompareRequest,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        final ServletOutputStream outputStream = response.getOutputStream();
+        final ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        batchCompareService.compare(batchCompareRequest, new BatchCompareService.ResultWriter() {
+            @Override
+            public void write(BatchCompareResultEntity result) throws IOException {
+                outputStream.write(writer.writeValueAsBytes(result));
+                outputStream.write('\n');
+                // every result is sent as soon as it is ready
+                outputStream.flush();
+            }
+        });
+    }
+
+    /**
+     * Start comparison of files from local storage in the background
+     *
+     * @param compareRequest request with paths to files
+     * @return state of the comparison job
+     */
+    @RequestMapping(method = RequestMethod.POST, value = "/compareJobs", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CompareJobEntity submitCompareJob(@RequestBody CompareRequest compareRequest) {
+        // check formats
+        if (comparisonService.checkFiles(compareRequest)) {
+            return compareJobService.submit(compareRequest);
+        } else {
+            logger.error("Document types are different");
+            throw new TotalGroupDocsException("Document types are different");
+        }
+    }
+
+    /**
+     * Get state of the comparison job
+     *
+     * @param jobId unique key of the job
+     * @return state of the comparison job
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/compareJobs/{jobId}", produces = APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CompareJobEntity getCompareJob(@PathVariable("jobId") String jobId) {
+        return compareJobService.getJob(jobId);
+    }
+
+    /**
+     * Get results of the finished comparison job
+     * <p>
+     * The response with compare results is written page by page
+     *
+     * @param jobId unique key of the job
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/compareJobs/{jobId}/result", produces = APPLICATION_JSON_VALUE)
+    public void getCompareJobResult(@PathVariable("jobId") String jobId,
+                                    HttpServletResponse response) throws IOException {
+        compareResultWriter.write(compareJobService.getResult(jobId), response);
+    }
+
     /**
      * Get document description
      *
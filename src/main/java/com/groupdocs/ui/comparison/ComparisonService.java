@@ -1,13 +1,19 @@
 package com.groupdocs.ui.comparison;
 
 import com.groupdocs.ui.comparison.model.request.CompareRequest;
+import com.groupdocs.ui.comparison.model.request.FileTreePageRequest;
+import com.groupdocs.ui.comparison.model.request.LoadPageTileRequest;
 import com.groupdocs.ui.comparison.model.response.CompareResultResponse;
+import com.groupdocs.ui.comparison.model.response.FileTreePageEntity;
+import com.groupdocs.ui.comparison.model.response.MultiCompareResultResponse;
+import com.groupdocs.ui.comparison.model.response.PageTilesEntity;
 import com.groupdocs.ui.model.request.FileTreeRequest;
 import com.groupdocs.ui.model.request.LoadDocumentPageRequest;
 import com.groupdocs.ui.model.response.FileDescriptionEntity;
 import com.groupdocs.ui.model.response.LoadDocumentEntity;
 import com.groupdocs.ui.model.response.PageDescriptionEntity;
 
+import java.io.File;
 import java.util.List;
 
 public interface ComparisonService {
@@ -27,15 +33,53 @@ public interface ComparisonService {
      */
     List<FileDescriptionEntity> loadFiles(FileTreeRequest fileTreeRequest);
 
+    /**
+     * Load the page of elements from directory
+     *
+     * @param fileTreePageRequest request with path to directory, filter, order and cursor of the page
+     * @return page of files and folders
+     */
+    FileTreePageEntity loadFilesPage(FileTreePageRequest fileTreePageRequest);
+
     /**
      * Compare two documents, save results in files,
      * return result descriptions and paths to result files
+     * <p>
+     * Images of loaded result pages are not kept in the result, they stay in the page images cache
+     * and are written with the response by {@link com.groupdocs.ui.comparison.result.CompareResultWriter}
      *
      * @param compareRequest request with paths to documents to compare
      * @return comparing results
      */
     CompareResultResponse compare(CompareRequest compareRequest);
 
+    /**
+     * Compare two documents and report the progress
+     *
+     * @param compareRequest request with paths to documents to compare
+     * @param listener       progress listener
+     * @return comparing results
+     */
+    CompareResultResponse compare(CompareRequest compareRequest, CompareProgressListener listener);
+
+    /**
+     * Compare two documents without rendering result pages, pages are only described
+     * and are rendered when they are loaded
+     *
+     * @param compareRequest request with paths to documents to compare
+     * @return comparing results
+     */
+    CompareResultResponse compareWithoutPages(CompareRequest compareRequest);
+
+    /**
+     * Compare the first document with all other documents, pairwise or in one comparison
+     * depending on the configured mode
+     *
+     * @param compareRequest request with paths to the source document and target documents
+     * @return results for every target or one result with changes of all targets
+     */
+    MultiCompareResultResponse multiCompare(CompareRequest compareRequest);
+
     /**
      * Load the description of the page
      *
@@ -52,6 +96,47 @@ public interface ComparisonService {
      */
     PageDescriptionEntity loadDocumentPage(LoadDocumentPageRequest loadDocumentPageRequest);
 
+    /**
+     * Check that the document can be opened with the password
+     *
+     * @param documentGuid path to document
+     * @param password     document password
+     */
+    void checkDocumentAccess(String documentGuid, String password);
+
+    /**
+     * Get the file with the page image, the page is rendered if it is not cached
+     *
+     * @param loadDocumentPageRequest request with path to document, one-based page number and optional image size and format
+     * @return image file
+     */
+    File loadDocumentPageImage(LoadDocumentPageRequest loadDocumentPageRequest);
+
+    /**
+     * Get the file with the page image, the page is rendered if it is not cached
+     *
+     * @param loadDocumentPageRequest request with path to document, one-based page number and optional image size and format
+     * @param prefetch                render following pages in background, it is needed only for pages requested by clients
+     * @return image file, null if the page is rendered in background and the document is used by other requests
+     */
+    File loadDocumentPageImage(LoadDocumentPageRequest loadDocumentPageRequest, boolean prefetch);
+
+    /**
+     * Get zoom levels and tile counts of the page
+     *
+     * @param loadDocumentPageRequest request with path to document and one-based page number
+     * @return tile pyramid of the page
+     */
+    PageTilesEntity loadPageTiles(LoadDocumentPageRequest loadDocumentPageRequest);
+
+    /**
+     * Get the file with the tile of the page, the whole zoom level is cut to tiles if the tile is not cached
+     *
+     * @param loadPageTileRequest request with path to document, one-based page number, level, column, row and format
+     * @return tile image file
+     */
+    File loadPageTile(LoadPageTileRequest loadPageTileRequest);
+
     /**
      * Check format files for comparing
      *
@@ -1,20 +1,36 @@
 package com.groupdocs.ui.comparison;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.groupdocs.comparison.Comparer;
-import com.groupdocs.comparison.common.delegates.Delegates;
-import com.groupdocs.comparison.interfaces.IDocumentInfo;
 import com.groupdocs.comparison.license.License;
 import com.groupdocs.comparison.options.CompareOptions;
-import com.groupdocs.comparison.options.PreviewOptions;
-import com.groupdocs.comparison.options.enums.PreviewFormats;
 import com.groupdocs.comparison.options.load.LoadOptions;
 import com.groupdocs.comparison.options.style.DetalisationLevel;
 import com.groupdocs.comparison.result.ChangeInfo;
-import com.groupdocs.comparison.result.PageInfo;
 import com.groupdocs.comparison.utils.common.Path;
+import com.groupdocs.ui.comparison.cache.CompareResultCache;
+import com.groupdocs.ui.comparison.cache.DocumentInfoCache;
+import com.groupdocs.ui.comparison.cache.DocumentPages;
+import com.groupdocs.ui.comparison.cache.PageImageCache;
+import com.groupdocs.ui.comparison.changes.ChangeStore;
+import com.groupdocs.ui.comparison.filetree.DirectorySnapshot;
+import com.groupdocs.ui.comparison.filetree.FileTreeEntry;
+import com.groupdocs.ui.comparison.filetree.FileTreeIndex;
 import com.groupdocs.ui.comparison.model.request.CompareRequest;
+import com.groupdocs.ui.comparison.model.request.FileTreePageRequest;
+import com.groupdocs.ui.comparison.model.request.LoadPageTileRequest;
 import com.groupdocs.ui.comparison.model.response.ChangeInfoEntity;
 import com.groupdocs.ui.comparison.model.response.CompareResultResponse;
+import com.groupdocs.ui.comparison.model.response.FileTreePageEntity;
+import com.groupdocs.ui.comparison.model.response.MultiCompareResultResponse;
+import com.groupdocs.ui.comparison.model.response.PageTilesEntity;
+import com.groupdocs.ui.comparison.render.PageImageOptions;
+import com.groupdocs.ui.comparison.render.PagePrefetcher;
+import com.groupdocs.ui.comparison.render.PageRenderer;
+import com.groupdocs.ui.comparison.render.PageTiles;
+import com.groupdocs.ui.comparison.result.ResultDirectorySweeper;
+import com.groupdocs.ui.comparison.session.DocumentSession;
+import com.groupdocs.ui.comparison.session.DocumentSessionPool;
 import com.groupdocs.ui.config.DefaultDirectories;
 import com.groupdocs.ui.config.GlobalConfiguration;
 import com.groupdocs.ui.exception.TotalGroupDocsException;
@@ -24,6 +40,7 @@ import com.groupdocs.ui.model.request.LoadDocumentRequest;
 import com.groupdocs.ui.model.response.FileDescriptionEntity;
 import com.groupdocs.ui.model.response.LoadDocumentEntity;
 import com.groupdocs.ui.model.response.PageDescriptionEntity;
+import com.groupdocs.ui.util.FileHashes;
 import com.groupdocs.ui.util.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,10 +49,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.*;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.*;
 
+import static com.groupdocs.ui.comparison.cache.PageImageCache.PNG;
 import static com.groupdocs.ui.util.Utils.parseFileExtension;
 
 @Service
@@ -43,11 +64,51 @@ public class ComparisonServiceImpl implements ComparisonService {
 
     private static final Logger logger = LoggerFactory.getLogger(ComparisonServiceImpl.class);
     public static final String TEMP_DIRECTORY_NAME = "temp";
+    public static final String MULTI_COMPARE_PAIRWISE = "pairwise";
+    public static final String MULTI_COMPARE_MULTI = "multi";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    /**
+     * Count of pages to load when pages are only described
+     */
+    private static final int NO_PAGES = -1;
+    /**
+     * Larger sources are read from the file by every comparison
+     */
+    private static final long MAX_SHARED_SOURCE_SIZE = 16 * 1024 * 1024;
 
     @Autowired
     private ComparisonConfiguration comparisonConfiguration;
     @Autowired
     private GlobalConfiguration globalConfiguration;
+    @Autowired
+    private PageImageCache pageImageCache;
+    @Autowired
+    private CompareResultCache compareResultCache;
+    @Autowired
+    private DocumentInfoCache documentInfoCache;
+    @Autowired
+    private DocumentSessionPool documentSessionPool;
+    @Autowired
+    private PageRenderer pageRenderer;
+    @Autowired
+    private FileTreeIndex fileTreeIndex;
+    @Autowired
+    private ResultDirectorySweeper resultDirectorySweeper;
+    @Autowired
+    private ChangeStore changeStore;
+    @Autowired
+    private PagePrefetcher pagePrefetcher;
+
+    private ThreadPoolExecutor multiCompareExecutor;
+    /**
+     * Limits count of zoom levels cut to tiles at the same time
+     */
+    private Semaphore tileRenderPermits;
+    /**
+     * Locks of zoom levels which are cut to tiles now, a level is rendered once for all its tiles
+     */
+    private final ConcurrentMap<String, Object> tileLevelLocks = new ConcurrentHashMap<>();
 
     /**
      * Initializing fields after creating configuration objects
@@ -69,6 +130,17 @@ public class ComparisonServiceImpl implements ComparisonService {
         } catch (Throwable exc) {
             logger.error("Can not verify Comparison license!");
         }
+        // pairwise comparisons of one document with several documents
+        int threads = Math.max(1, comparisonConfiguration.getMultiCompareThreads());
+        multiCompareExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("multi-compare-%d").setDaemon(true).build());
+        tileRenderPermits = new Semaphore(Math.max(1, comparisonConfiguration.getTileRenderThreads()));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        multiCompareExecutor.shutdownNow();
     }
 
     /**
@@ -87,6 +159,107 @@ public class ComparisonServiceImpl implements ComparisonService {
         final String path = fileTreeRequest.getPath();
         final File filesDirectory = new File(Path.combine(comparisonConfiguration.getFilesDirectory(), path));
 
+        List<FileDescriptionEntity> filesList = new ArrayList<>();
+        try {
+            // indexed directories are listed without reading the storage
+            List<FileTreeEntry> entries = fileTreeIndex.list(filesDirectory);
+            if (entries == null) {
+                return listFiles(filesDirectory);
+            }
+            for (FileTreeEntry entry : entries) {
+                if (isShownInFileTree(entry.getName(), entry.isHidden())) {
+                    filesList.add(getFileDescription(entry));
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Exception in getting file list", e);
+            throw new TotalGroupDocsException(e.getMessage(), e);
+        }
+        return filesList;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FileTreePageEntity loadFilesPage(FileTreePageRequest fileTreePageRequest) {
+        final File filesDirectory = new File(Path.combine(comparisonConfiguration.getFilesDirectory(), fileTreePageRequest.getPath()));
+        DirectorySnapshot directory;
+        try {
+            directory = fileTreeIndex.getDirectory(filesDirectory);
+        } catch (IOException e) {
+            logger.error("Exception in getting file list", e);
+            throw new TotalGroupDocsException(e.getMessage(), e);
+        }
+        if (directory == null) {
+            throw new TotalGroupDocsException("Can't list files");
+        }
+        Comparator<FileTreeEntry> order = FileTreeEntry.getComparator(fileTreePageRequest.getSortBy(), fileTreePageRequest.isDescending());
+        List<FileTreeEntry> entries = directory.getEntries(order);
+        String cursor = fileTreePageRequest.getCursor();
+        Integer requestedCount = fileTreePageRequest.getCount();
+        int count = requestedCount == null || requestedCount <= 0 ? DEFAULT_PAGE_SIZE : Math.min(requestedCount, MAX_PAGE_SIZE);
+        String namePrefix = fileTreePageRequest.getNamePrefix();
+        String extension = StringUtils.isEmpty(fileTreePageRequest.getExtension()) ? null :
+                StringUtils.trimLeadingCharacter(fileTreePageRequest.getExtension(), '.');
+
+        FileTreePageEntity page = new FileTreePageEntity();
+        List<FileDescriptionEntity> files = new ArrayList<>(Math.min(count, entries.size()));
+        // entries are converted only for the page, the rest of the directory is only checked by the filter
+        int index = StringUtils.isEmpty(cursor) ? 0 : FileTreeEntry.getPositionAfter(cursor, entries, order);
+        FileTreeEntry last = null;
+        for (; index < entries.size() && files.size() < count; index++) {
+            FileTreeEntry entry = entries.get(index);
+            if (isMatched(entry, namePrefix, extension)) {
+                files.add(getFileDescription(entry));
+                last = entry;
+            }
+        }
+        for (; index < entries.size(); index++) {
+            if (isMatched(entries.get(index), namePrefix, extension)) {
+                page.setNextCursor(last.toCursor());
+                break;
+            }
+        }
+        if (StringUtils.isEmpty(cursor)) {
+            int total = 0;
+            for (FileTreeEntry entry : entries) {
+                if (isMatched(entry, namePrefix, extension)) {
+                    total++;
+                }
+            }
+            page.setTotal(total);
+        }
+        page.setFiles(files);
+        return page;
+    }
+
+    private boolean isMatched(FileTreeEntry entry, String namePrefix, String extension) {
+        String name = entry.getName();
+        if (!isShownInFileTree(name, entry.isHidden())) {
+            return false;
+        }
+        if (!StringUtils.isEmpty(namePrefix) && !name.regionMatches(true, 0, namePrefix, 0, namePrefix.length())) {
+            return false;
+        }
+        return entry.isDirectory() || extension == null || extension.equalsIgnoreCase(parseFileExtension(name));
+    }
+
+    private static FileDescriptionEntity getFileDescription(FileTreeEntry entry) {
+        FileDescriptionEntity fileDescription = new FileDescriptionEntity();
+        fileDescription.setGuid(entry.getGuid());
+        fileDescription.setName(entry.getName());
+        fileDescription.setIsDirectory(entry.isDirectory());
+        if (!entry.isDirectory()) {
+            fileDescription.setSize(entry.getSize());
+        }
+        return fileDescription;
+    }
+
+    /**
+     * Read the list of files from the storage
+     */
+    private List<FileDescriptionEntity> listFiles(File filesDirectory) {
         List<FileDescriptionEntity> filesList = new ArrayList<>();
         try {
             final File[] files = filesDirectory.listFiles();
@@ -96,7 +269,7 @@ public class ComparisonServiceImpl implements ComparisonService {
 
             for (File file : files) {
                 // check if current file/folder is hidden
-                if (!(file.getName().equals(comparisonConfiguration.getFilesDirectory())) && !(file.getName().equals(comparisonConfiguration.getResultDirectory())) && !file.getName().startsWith(".") && !file.isHidden() && !TEMP_DIRECTORY_NAME.equals(file.getName())) {
+                if (isShownInFileTree(file.getName(), file.isHidden())) {
                     FileDescriptionEntity fileDescription = new FileDescriptionEntity();
                     fileDescription.setGuid(file.getCanonicalFile().getAbsolutePath());
                     fileDescription.setName(file.getName());
@@ -133,18 +306,104 @@ public class ComparisonServiceImpl implements ComparisonService {
         return filesList;
     }
 
+    private boolean isShownInFileTree(String name, boolean hidden) {
+        return !(name.equals(comparisonConfiguration.getFilesDirectory())) && !(name.equals(comparisonConfiguration.getResultDirectory())) && !name.startsWith(".") && !hidden && !TEMP_DIRECTORY_NAME.equals(name);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public CompareResultResponse compare(CompareRequest compareRequest) {
-        CompareResultResponse compareResultResponse = null;
+        return compare(compareRequest, CompareProgressListener.NONE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompareResultResponse compare(CompareRequest compareRequest, CompareProgressListener listener) {
+        return compareDocuments(compareRequest, null, true, listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompareResultResponse compareWithoutPages(CompareRequest compareRequest) {
+        return compareDocuments(compareRequest, null, false, CompareProgressListener.NONE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MultiCompareResultResponse multiCompare(CompareRequest compareRequest) {
+        List<LoadDocumentRequest> guids = compareRequest.getGuids();
+        if (guids == null || guids.size() < 2) {
+            throw new TotalGroupDocsException("Source document and at least one target document are required");
+        }
+        String mode = comparisonConfiguration.getMultiCompareMode();
+        if (StringUtils.isEmpty(mode)) {
+            mode = MULTI_COMPARE_PAIRWISE;
+        }
+        List<CompareResultResponse> results;
+        if (MULTI_COMPARE_PAIRWISE.equals(mode)) {
+            results = comparePairwise(compareRequest);
+        } else if (MULTI_COMPARE_MULTI.equals(mode)) {
+            // all targets are added to one comparer, the source is loaded once
+            results = Collections.singletonList(compareDocuments(compareRequest, null, true, CompareProgressListener.NONE));
+        } else {
+            throw new TotalGroupDocsException("Unknown comparison mode " + mode);
+        }
+        MultiCompareResultResponse multiCompareResultResponse = new MultiCompareResultResponse();
+        multiCompareResultResponse.setMode(mode);
+        multiCompareResultResponse.setResults(results);
+        return multiCompareResultResponse;
+    }
+
+    /**
+     * Compare the source with every target in parallel, the source is read once for all comparisons
+     *
+     * @param compareRequest request with paths to the source and targets
+     * @return results for every target in the order of the request
+     */
+    private List<CompareResultResponse> comparePairwise(CompareRequest compareRequest) {
+        final List<LoadDocumentRequest> guids = compareRequest.getGuids();
+        final LoadDocumentRequest source = guids.get(0);
+        final SharedSource sharedSource = new SharedSource(source.getGuid());
+        List<Future<CompareResultResponse>> comparisons = new ArrayList<>();
         try {
-            compareResultResponse = compareTwoDocuments(compareRequest);
-        } catch (FileNotFoundException e) {
-            throw new TotalGroupDocsException(e.getMessage(), e);
+            for (LoadDocumentRequest target : guids.subList(1, guids.size())) {
+                final CompareRequest pairRequest = new CompareRequest();
+                pairRequest.setGuids(Arrays.asList(source, target));
+                comparisons.add(multiCompareExecutor.submit(new Callable<CompareResultResponse>() {
+                    @Override
+                    public CompareResultResponse call() {
+                        return compareDocuments(pairRequest, sharedSource, true, CompareProgressListener.NONE);
+                    }
+                }));
+            }
+            List<CompareResultResponse> results = new ArrayList<>();
+            for (Future<CompareResultResponse> comparison : comparisons) {
+                results.add(comparison.get());
+            }
+            return results;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof TotalGroupDocsException) {
+                throw (TotalGroupDocsException) cause;
+            }
+            throw new TotalGroupDocsException(cause.getMessage(), cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TotalGroupDocsException(ex.getMessage(), ex);
+        } finally {
+            // other comparisons are not needed when one of them failed
+            for (Future<CompareResultResponse> comparison : comparisons) {
+                comparison.cancel(true);
+            }
         }
-        return compareResultResponse;
     }
 
     @Override
@@ -154,56 +413,200 @@ public class ComparisonServiceImpl implements ComparisonService {
         return loadDocumentPages(documentGuid, password, 0);
     }
 
-    private CompareResultResponse compareTwoDocuments(CompareRequest compareRequest) throws FileNotFoundException {
+    /**
+     * Compare the source with one or several targets
+     *
+     * @param compareRequest request with paths to the source and targets
+     * @param sharedSource   content of the source read once for several comparisons, null to read the source file
+     * @param renderPages    render result pages which are loaded with the result, otherwise pages are only described
+     * @param listener       progress listener
+     * @return comparing results
+     */
+    private CompareResultResponse compareDocuments(final CompareRequest compareRequest, final SharedSource sharedSource,
+                                                   final boolean renderPages, final CompareProgressListener listener) {
+        final List<LoadDocumentRequest> guids = compareRequest.getGuids();
+        final String fileExt = parseFileExtension(guids.get(0).getGuid());
+        // repeated comparisons of the same documents are taken from the cache
+        final String sourceHash = FileHashes.sha256(new File(guids.get(0).getGuid()));
+        StringBuilder targetHash = new StringBuilder();
+        for (LoadDocumentRequest target : guids.subList(1, guids.size())) {
+            if (targetHash.length() > 0) {
+                targetHash.append(',');
+            }
+            targetHash.append(FileHashes.sha256(new File(target.getGuid())));
+        }
+        // passwords are not kept as is, the same way as in the document info cache
+        StringBuilder passwords = new StringBuilder();
+        for (LoadDocumentRequest document : guids) {
+            if (passwords.length() > 0) {
+                passwords.append(',');
+            }
+            passwords.append(StringUtils.isEmpty(document.getPassword()) ? "" : FileHashes.sha256(document.getPassword()));
+        }
+        final String resultKey = CompareResultCache.getKey(sourceHash, targetHash.toString(), passwords.toString(), getCompareOptionsKey(fileExt));
+
+        // the result can be rendered again, it should not be removed meanwhile
+        try (CompareResultCache.PinnedResult pinnedResult = compareResultCache.get(resultKey, new Callable<CompareResultCache.PinnedResult>() {
+            @Override
+            public CompareResultCache.PinnedResult call() throws Exception {
+                return compareAndLoadResult(compareRequest, fileExt, sharedSource, renderPages, listener);
+            }
+        })) {
+            CompareResultResponse compareResultResponse = pinnedResult.getResult();
+            // changes can be queried by the result guid
+            changeStore.put(compareResultResponse.getGuid(), compareResultResponse.getChanges());
+            if (renderPages) {
+                loadResultPageImages(compareResultResponse, listener);
+            }
+            return compareResultResponse;
+        }
+    }
+
+    /**
+     * Compare documents and describe the result
+     *
+     * @return result with the pinned result document
+     */
+    private CompareResultCache.PinnedResult compareAndLoadResult(CompareRequest compareRequest, String fileExt, SharedSource sharedSource,
+                                                       boolean renderPages, CompareProgressListener listener) throws IOException {
         // to get correct coordinates we will compare document twice
         // this is a first comparing to get correct coordinates of the insertions and style changes
-        final String fileExt = parseFileExtension(compareRequest.getGuids().get(0).getGuid());
         String extension = "." + fileExt;
         String guid = UUID.randomUUID().toString();
         //save all results in file
         String[] resultGuid = new String[]{Path.combine(comparisonConfiguration.getResultDirectory(), guid + extension)};
 
-        Comparer compareResult = compareFiles(compareRequest, resultGuid);
-        ChangeInfo[] changes = compareResult.getChanges();
+        listener.onComparing();
         List<ChangeInfoEntity> changeInfoEntities = new ArrayList<>();
-        for (ChangeInfo changeInfo : changes) {
-            changeInfoEntities.add(new ChangeInfoEntity(changeInfo));
+        // the result should not be removed from its creation until the response is built
+        try (ResultDirectorySweeper.Pin pin = resultDirectorySweeper.pin(resultGuid[0])) {
+            try (Comparer compareResult = compareFiles(compareRequest, sharedSource, resultGuid)) {
+                ChangeInfo[] changes = compareResult.getChanges();
+                for (ChangeInfo changeInfo : changes) {
+                    changeInfoEntities.add(new ChangeInfoEntity(changeInfo));
+                }
+            }
+
+            // the comparer can save the result under another name, it is pinned until the caller uses the result
+            ResultDirectorySweeper.Pin resultPin = resultDirectorySweeper.pin(resultGuid[0]);
+            try {
+                CompareResultResponse compareResultResponse = getCompareResultResponse(changeInfoEntities.toArray(new ChangeInfoEntity[0]), resultGuid[0],
+                        renderPages ? getPreloadResultPageCount() : NO_PAGES, listener);
+                compareResultResponse.setExtension(fileExt);
+                return new CompareResultCache.PinnedResult(compareResultResponse, resultPin);
+            } catch (RuntimeException ex) {
+                resultPin.close();
+                throw ex;
+            }
         }
+    }
 
-        CompareResultResponse compareResultResponse = getCompareResultResponse(changeInfoEntities.toArray(new ChangeInfoEntity[0]), resultGuid[0]);
-        compareResultResponse.setExtension(fileExt);
-        return compareResultResponse;
+    /**
+     * Make sure that page images of the cached result are in the page images cache, pages are
+     * marked as loaded and their images are written with the response
+     *
+     * @param compareResultResponse comparison result
+     * @param listener              progress listener
+     */
+    private void loadResultPageImages(CompareResultResponse compareResultResponse, CompareProgressListener listener) {
+        final String resultGuid = compareResultResponse.getGuid();
+        final int preloadPageCount = getPreloadResultPageCount();
+        final List<PageDescriptionEntity> pages = compareResultResponse.getPages();
+        final int loadPageCount = preloadPageCount == 0 ? pages.size() : Math.min(preloadPageCount, pages.size());
+        String resultHash = null;
+        boolean rendering = false;
+        for (PageDescriptionEntity page : pages.subList(0, loadPageCount)) {
+            if (page.isLoaded() || page.getUrl() != null) {
+                continue;
+            }
+            if (!rendering) {
+                listener.onRendering(loadPageCount);
+                rendering = true;
+            }
+            if (resultHash == null) {
+                resultHash = FileHashes.sha256(new File(resultGuid));
+            }
+            File image = pageImageCache.get(resultHash, page.getNumber(), (int) page.getWidth(), (int) page.getHeight(), PNG);
+            if (image == null) {
+                // some images are evicted, render the result again
+                compareResultResponse.setPages(loadDocumentPages(resultGuid, "", preloadPageCount, false, listener).getPages());
+                return;
+            }
+            page.setLoaded(true);
+            listener.onPageLoaded(page.getNumber());
+        }
     }
 
-    private CompareResultResponse getCompareResultResponse(ChangeInfoEntity[] changes, String resultGuid) {
+    private CompareResultResponse getCompareResultResponse(ChangeInfoEntity[] changes, String resultGuid, int loadPagesCount, CompareProgressListener listener) {
         CompareResultResponse compareResultResponse = new CompareResultResponse();
         compareResultResponse.setChanges(changes);
 
-        List<PageDescriptionEntity> pages = loadDocumentPages(resultGuid, "",
-                /* Uncomment (and delete 0) to support preloadResultPageCount, does not work in front-end at the moment */
-                /*comparisonConfiguration.getPreloadResultPageCount()*/0).getPages();
+        // remaining pages are marked as not loaded and are loaded by loadDocumentPage,
+        // images of loaded pages stay in the cache until the response is written
+        List<PageDescriptionEntity> pages = loadDocumentPages(resultGuid, "", loadPagesCount, false, listener).getPages();
 
         compareResultResponse.setPages(pages);
         compareResultResponse.setGuid(resultGuid);
         return compareResultResponse;
     }
 
-    public static LoadDocumentEntity loadDocumentPages(String documentGuid, String password, int loadPagesCount) {
+    /**
+     * Get count of result pages to load with comparison results
+     *
+     * @return count of pages, 0 to load all pages
+     */
+    private int getPreloadResultPageCount() {
+        Integer preloadResultPageCount = comparisonConfiguration.getPreloadResultPageCount();
+        return preloadResultPageCount == null || preloadResultPageCount < 0 ? 0 : preloadResultPageCount;
+    }
+
+    public LoadDocumentEntity loadDocumentPages(String documentGuid, String password, int loadPagesCount) {
+        return loadDocumentPages(documentGuid, password, loadPagesCount, true, CompareProgressListener.NONE);
+    }
+
+    /**
+     * Load document pages
+     *
+     * @param documentGuid   path to document
+     * @param password       document password
+     * @param loadPagesCount count of pages to load, 0 to load all pages, NO_PAGES to only describe pages
+     * @param inlineImages   set images of loaded pages as data, otherwise images are only put in the cache
+     * @param listener       progress listener
+     * @return document description
+     */
+    private LoadDocumentEntity loadDocumentPages(String documentGuid, String password, int loadPagesCount, boolean inlineImages, CompareProgressListener listener) {
         LoadDocumentEntity loadDocumentEntity = new LoadDocumentEntity();
+        final String documentHash = FileHashes.sha256(new File(documentGuid));
 
-        try (Comparer comparer = new Comparer(documentGuid, getLoadOptions(password))) {
-            IDocumentInfo documentInfo = comparer.getSource().getDocumentInfo();
+        try (OpenedDocument document = new OpenedDocument(documentGuid, password)) {
+            final DocumentPages documentPages = document.getPages();
+            final int pageCount = documentPages.getPageCount();
 
-            for (int i = 0; i < documentInfo.getPageCount(); i++) {
+            // pages of not protected documents can be loaded by url when it is needed
+            final boolean loadByUrl = comparisonConfiguration.isPageImageUrls() && StringUtils.isEmpty(password);
+            List<Integer> pagesToLoad = new ArrayList<>();
+            for (int i = 0; i < pageCount; i++) {
+                if (!loadByUrl && (loadPagesCount == 0 || loadPagesCount > i)) {
+                    pagesToLoad.add(i);
+                }
+            }
+            Map<Integer, byte[]> pageImages = getPageImages(document, documentHash, pagesToLoad, inlineImages, PageImageOptions.DEFAULT, listener);
+            Set<Integer> loadedPages = new HashSet<>(pagesToLoad);
+
+            for (int i = 0; i < pageCount; i++) {
                 PageDescriptionEntity pageData = new PageDescriptionEntity();
-                final PageInfo pageInfo = documentInfo.getPagesInfo().get(i);
-                pageData.setHeight(pageInfo.getHeight());
-                pageData.setWidth(pageInfo.getWidth());
+                pageData.setHeight(documentPages.getHeight(i));
+                pageData.setWidth(documentPages.getWidth(i));
                 pageData.setNumber(i);
 
-                if (loadPagesCount == 0 || loadPagesCount > i) {
-                    String encodedImage = getPageData(i, documentGuid, password);
-                    pageData.setData(encodedImage);
+                byte[] bytes = pageImages.get(i);
+                if (bytes != null) {
+                    pageData.setData(Base64.getEncoder().encodeToString(bytes));
+                    pageData.setLoaded(true);
+                } else if (!inlineImages && loadedPages.contains(i)) {
+                    pageData.setLoaded(true);
+                } else if (loadByUrl) {
+                    pageData.setUrl(getPageImageUrl(documentGuid, i));
                 }
 
                 loadDocumentEntity.getPages().add(pageData);
@@ -214,46 +617,104 @@ public class ComparisonServiceImpl implements ComparisonService {
         }
     }
 
-    private static LoadOptions getLoadOptions(String password) {
-        LoadOptions loadOptions = new LoadOptions();
-        loadOptions.setPassword(password);
-
-        return loadOptions;
+    /**
+     * Get url of the page image
+     *
+     * @param documentGuid path to document
+     * @param pageNumber   zero-based page number
+     * @return url of the page image
+     */
+    private String getPageImageUrl(String documentGuid, int pageNumber) {
+        return globalConfiguration.getServer().getApplicationContextPath() + "/comparison/pages/" +
+                Utils.encodeDocumentId(documentGuid) + "/" + (pageNumber + 1) + "." + PNG;
     }
 
-    private static String getPageData(int pageNumber, String documentGuid, String password) {
-        String encodedImage = "";
-
-        try (Comparer comparer = new Comparer(documentGuid, getLoadOptions(password))) {
-            byte[] bytes = renderPageToMemoryStream(comparer, pageNumber);
-            encodedImage = new String(Base64.getEncoder().encode(bytes)).replace("\n", "");
+    /**
+     * Get page images from the cache, render missing pages from the document
+     *
+     * @param document     document, it is opened only if some pages are not cached
+     * @param documentHash content hash of the document
+     * @param pageNumbers  zero-based numbers of pages
+     * @param inlineImages return images, otherwise images are only put in the cache
+     * @param options      size and format of images
+     * @param listener     progress listener
+     * @return image bytes by zero-based page number, empty if images are not returned
+     */
+    private Map<Integer, byte[]> getPageImages(OpenedDocument document, String documentHash, List<Integer> pageNumbers, boolean inlineImages,
+                                               PageImageOptions options, CompareProgressListener listener) {
+        final DocumentPages documentPages = document.getPages();
+        Map<Integer, byte[]> pageImages = new HashMap<>();
+        List<Integer> pagesToRender = new ArrayList<>();
+        if (!pageNumbers.isEmpty()) {
+            listener.onRendering(pageNumbers.size());
+        }
+        for (Integer pageNumber : pageNumbers) {
+            final int width = options.getWidth(documentPages.getWidth(pageNumber), documentPages.getHeight(pageNumber));
+            final int height = options.getHeight(documentPages.getWidth(pageNumber), documentPages.getHeight(pageNumber));
+            if (!inlineImages && pageImageCache.get(documentHash, pageNumber, width, height, options) != null) {
+                listener.onPageLoaded(pageNumber);
+                continue;
+            }
+            byte[] bytes = inlineImages ? pageImageCache.read(documentHash, pageNumber, width, height, options) : null;
+            if (bytes != null) {
+                pageImages.put(pageNumber, bytes);
+                listener.onPageLoaded(pageNumber);
+            } else {
+                pagesToRender.add(pageNumber);
+            }
+        }
+        if (pagesToRender.isEmpty()) {
+            return pageImages;
         }
 
-        return encodedImage;
+        Map<Integer, byte[]> renderedPages;
+        try (PagePrefetcher.Foreground foreground = pagePrefetcher.foreground()) {
+            renderedPages = pageRenderer.render(document.documentGuid, document.password,
+                    document.getComparer(), documentPages, pagesToRender, options, listener);
+        }
+        for (Map.Entry<Integer, byte[]> renderedPage : renderedPages.entrySet()) {
+            final int pageNumber = renderedPage.getKey();
+            final int pageWidth = documentPages.getWidth(pageNumber);
+            final int pageHeight = documentPages.getHeight(pageNumber);
+            pageImageCache.put(documentHash, pageNumber, options.getWidth(pageWidth, pageHeight), options.getHeight(pageWidth, pageHeight),
+                    options, renderedPage.getValue());
+        }
+        if (inlineImages) {
+            pageImages.putAll(renderedPages);
+        }
+        return pageImages;
     }
 
-    static byte[] renderPageToMemoryStream(Comparer comparer, int pageNumberToRender) {
+    private static LoadOptions getLoadOptions(String password) {
+        LoadOptions loadOptions = new LoadOptions();
+        loadOptions.setPassword(password);
 
-        try (ByteArrayOutputStream result = new ByteArrayOutputStream()) {
-            IDocumentInfo documentInfo = comparer.getSource().getDocumentInfo();
+        return loadOptions;
+    }
 
-            PreviewOptions previewOptions = new PreviewOptions(new Delegates.CreatePageStream() {
-                @Override
-                public OutputStream invoke(int i) {
-                    return result;
-                }
-            });
+    static byte[] renderPageToMemoryStream(Comparer comparer, DocumentPages documentPages, int pageNumberToRender, PageImageOptions options) {
+        return PageRenderer.renderPages(comparer, documentPages, Collections.singletonList(pageNumberToRender), options, CompareProgressListener.NONE).get(pageNumberToRender);
+    }
 
-            previewOptions.setPreviewFormat(PreviewFormats.PNG);
-            previewOptions.setPageNumbers(new int[]{pageNumberToRender + 1});
-            final PageInfo pageInfo = documentInfo.getPagesInfo().get(pageNumberToRender);
-            previewOptions.setHeight(pageInfo.getHeight());
-            previewOptions.setWidth(pageInfo.getWidth());
-            comparer.getSource().generatePreview(previewOptions);
-            return result.toByteArray();
-        } catch (IOException e) {
-            throw new TotalGroupDocsException(e.getMessage(), e);
+    /**
+     * Get size and format of the page image requested by the client
+     *
+     * @param loadDocumentPageRequest page request with optional width, scale, format and quality
+     * @return image options, thumbnails take the configured width
+     */
+    private PageImageOptions getPageImageOptions(LoadDocumentPageRequest loadDocumentPageRequest) {
+        String format = PNG;
+        if (!StringUtils.isEmpty(loadDocumentPageRequest.getFormat())) {
+            format = PageImageOptions.getFormat(loadDocumentPageRequest.getFormat());
+            if (format == null) {
+                throw new TotalGroupDocsException("Image format is not supported: " + loadDocumentPageRequest.getFormat());
+            }
+        }
+        int quality = loadDocumentPageRequest.getQuality() == null ? comparisonConfiguration.getJpegQuality() : loadDocumentPageRequest.getQuality();
+        if (loadDocumentPageRequest.isThumbnail()) {
+            return new PageImageOptions(comparisonConfiguration.getThumbnailWidth(), null, format, quality, true);
         }
+        return new PageImageOptions(loadDocumentPageRequest.getWidth(), loadDocumentPageRequest.getScale(), format, quality, false);
     }
 
     /**
@@ -268,41 +729,243 @@ public class ComparisonServiceImpl implements ComparisonService {
         final Integer pageNumber = loadDocumentPageRequest.getPage();
 
         PageDescriptionEntity loadedPage = new PageDescriptionEntity();
+        final PageImageOptions options = getPageImageOptions(loadDocumentPageRequest);
 
-        Comparer comparer = new Comparer(documentGuid, getLoadOptions(password));
-        try {
-            IDocumentInfo documentInfo = comparer.getSource().getDocumentInfo();
+        try (OpenedDocument document = new OpenedDocument(documentGuid, password)) {
+            final DocumentPages documentPages = document.getPages();
 
-            String encodedImage = getPageData(pageNumber - 1, documentGuid, password);
-            loadedPage.setData(encodedImage);
+            final String documentHash = FileHashes.sha256(new File(documentGuid));
+            byte[] bytes = getPageImages(document, documentHash, Collections.singletonList(pageNumber - 1), true, options, CompareProgressListener.NONE).get(pageNumber - 1);
+            loadedPage.setData(Base64.getEncoder().encodeToString(bytes));
+            loadedPage.setLoaded(true);
 
-            final PageInfo pageInfo = documentInfo.getPagesInfo().get(pageNumber - 1);
-            loadedPage.setHeight(pageInfo.getHeight());
-            loadedPage.setWidth(pageInfo.getWidth());
+            loadedPage.setHeight(documentPages.getHeight(pageNumber - 1));
+            loadedPage.setWidth(documentPages.getWidth(pageNumber - 1));
             loadedPage.setNumber(pageNumber - 1);
+            pagePrefetcher.prefetch(loadDocumentPageRequest, documentPages.getPageCount(), options.toString());
         } catch (Exception ex) {
             throw new TotalGroupDocsException("Exception occurred while loading result page", ex);
-        } finally {
-            comparer.dispose();
         }
 
         return loadedPage;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pages of documents opened with the same password are taken from the document info cache,
+     * otherwise the document is opened
+     */
+    @Override
+    public void checkDocumentAccess(String documentGuid, String password) {
+        try (OpenedDocument document = new OpenedDocument(documentGuid, password)) {
+            document.getPages();
+        } catch (TotalGroupDocsException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new TotalGroupDocsException("Can't open the document", ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public File loadDocumentPageImage(LoadDocumentPageRequest loadDocumentPageRequest) {
+        return loadDocumentPageImage(loadDocumentPageRequest, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public File loadDocumentPageImage(LoadDocumentPageRequest loadDocumentPageRequest, boolean prefetch) {
+        final String documentGuid = loadDocumentPageRequest.getGuid();
+        final String password = loadDocumentPageRequest.getPassword();
+        final int pageNumber = loadDocumentPageRequest.getPage() - 1;
+        final String documentHash = FileHashes.sha256(new File(documentGuid));
+        final PageImageOptions options = getPageImageOptions(loadDocumentPageRequest);
+
+        try (OpenedDocument document = new OpenedDocument(documentGuid, password)) {
+            final DocumentPages documentPages = document.getPages();
+            final int width = options.getWidth(documentPages.getWidth(pageNumber), documentPages.getHeight(pageNumber));
+            final int height = options.getHeight(documentPages.getWidth(pageNumber), documentPages.getHeight(pageNumber));
+            File image = pageImageCache.get(documentHash, pageNumber, width, height, options);
+            if (image == null) {
+                Comparer comparer = document.tryGetComparer();
+                if (comparer == null) {
+                    // the document is used by a client, the page is rendered when it is requested
+                    return null;
+                }
+                // the page could be rendered by the request which used the document
+                image = pageImageCache.get(documentHash, pageNumber, width, height, options);
+            }
+            if (image == null) {
+                byte[] bytes;
+                try (PagePrefetcher.Foreground foreground = pagePrefetcher.foreground()) {
+                    bytes = renderPageToMemoryStream(document.getComparer(), documentPages, pageNumber, options);
+                }
+                image = pageImageCache.put(documentHash, pageNumber, width, height, options, bytes);
+            }
+            if (image == null) {
+                throw new TotalGroupDocsException("Can't save page image");
+            }
+            if (prefetch) {
+                pagePrefetcher.prefetch(loadDocumentPageRequest, documentPages.getPageCount(), options.toString());
+            }
+            return image;
+        } catch (TotalGroupDocsException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new TotalGroupDocsException("Exception occurred while loading page image", ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PageTilesEntity loadPageTiles(LoadDocumentPageRequest loadDocumentPageRequest) {
+        final int pageNumber = loadDocumentPageRequest.getPage() - 1;
+        try (OpenedDocument document = new OpenedDocument(loadDocumentPageRequest.getGuid(), loadDocumentPageRequest.getPassword())) {
+            final PageTiles pageTiles = getPageTiles(document.getPages(), pageNumber);
+            PageTilesEntity pageTilesEntity = new PageTilesEntity();
+            pageTilesEntity.setNumber(pageNumber);
+            pageTilesEntity.setTileSize(pageTiles.getTileSize());
+            for (int level = 0; level < pageTiles.getLevelCount(); level++) {
+                PageTilesEntity.Level levelEntity = new PageTilesEntity.Level();
+                levelEntity.setWidth(pageTiles.getWidth(level));
+                levelEntity.setHeight(pageTiles.getHeight(level));
+                levelEntity.setColumns(pageTiles.getColumns(level));
+                levelEntity.setRows(pageTiles.getRows(level));
+                pageTilesEntity.getLevels().add(levelEntity);
+            }
+            return pageTilesEntity;
+        } catch (TotalGroupDocsException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new TotalGroupDocsException("Exception occurred while loading page tiles", ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The preview renders whole pages only, so the level is rendered once and all its tiles are
+     * cached, following tiles of the level are read from the cache
+     */
+    @Override
+    public File loadPageTile(LoadPageTileRequest loadPageTileRequest) {
+        final String documentGuid = loadPageTileRequest.getGuid();
+        final int pageNumber = loadPageTileRequest.getPage() - 1;
+        final int level = loadPageTileRequest.getLevel();
+        final int column = loadPageTileRequest.getColumn();
+        final int row = loadPageTileRequest.getRow();
+        final String documentHash = FileHashes.sha256(new File(documentGuid));
+        final PageImageOptions options = getPageImageOptions(loadPageTileRequest);
+
+        try (OpenedDocument document = new OpenedDocument(documentGuid, loadPageTileRequest.getPassword())) {
+            final DocumentPages documentPages = document.getPages();
+            final PageTiles pageTiles = getPageTiles(documentPages, pageNumber);
+            final String pyramid = pageTiles.getPyramidName();
+            pageTiles.checkTile(level, column, row);
+            File tile = pageImageCache.getTile(documentHash, pageNumber, pyramid, level, column, row, options.getVariant());
+            if (tile != null) {
+                return tile;
+            }
+
+            final String levelKey = documentHash + "/" + pageNumber + "/" + pyramid + "/" + level + "/" + options.getVariant();
+            Object lock = new Object();
+            Object currentLock = tileLevelLocks.putIfAbsent(levelKey, lock);
+            try {
+                synchronized (currentLock == null ? lock : currentLock) {
+                    // the level can be cut by the request which held the lock
+                    tile = pageImageCache.getTile(documentHash, pageNumber, pyramid, level, column, row, options.getVariant());
+                    if (tile == null) {
+                        renderPageTiles(document, documentHash, pageNumber, pageTiles, level, options);
+                        tile = pageImageCache.getTile(documentHash, pageNumber, pyramid, level, column, row, options.getVariant());
+                    }
+                }
+            } finally {
+                if (currentLock == null) {
+                    tileLevelLocks.remove(levelKey, lock);
+                }
+            }
+            if (tile == null) {
+                throw new TotalGroupDocsException("Can't save page tile");
+            }
+            return tile;
+        } catch (TotalGroupDocsException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new TotalGroupDocsException("Exception occurred while loading page tile", ex);
+        }
+    }
+
+    private PageTiles getPageTiles(DocumentPages documentPages, int pageNumber) {
+        if (pageNumber < 0 || pageNumber >= documentPages.getPageCount()) {
+            throw new TotalGroupDocsException("Page " + (pageNumber + 1) + " is out of the document");
+        }
+        return new PageTiles(documentPages.getWidth(pageNumber), documentPages.getHeight(pageNumber),
+                comparisonConfiguration.getTileSize(), Math.max(1, comparisonConfiguration.getTileMaxScale()));
+    }
+
+    /**
+     * Render the zoom level of the page and put all its tiles in the cache
+     */
+    private void renderPageTiles(OpenedDocument document, final String documentHash, final int pageNumber, final PageTiles pageTiles,
+                                 final int level, final PageImageOptions options) throws IOException {
+        try {
+            tileRenderPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TotalGroupDocsException(ex.getMessage(), ex);
+        }
+        java.nio.file.Path levelImage = null;
+        try {
+            // the level can be much larger than the page, it is cut from the file
+            java.nio.file.Path cacheDirectory = Files.createDirectories(Paths.get(comparisonConfiguration.getCacheDirectory()));
+            levelImage = Files.createTempFile(cacheDirectory, "level", ".png");
+            PageRenderer.renderPage(document.getComparer(), document.getPages(), pageNumber, pageTiles.getLevelOptions(level), levelImage.toFile());
+            pageTiles.slice(levelImage.toFile(), options.getFormat(), options.getQuality(), new PageTiles.TileWriter() {
+                @Override
+                public void write(int column, int row, byte[] tile) {
+                    pageImageCache.putTile(documentHash, pageNumber, pageTiles.getPyramidName(), level, column, row, options.getVariant(), tile);
+                }
+            });
+        } finally {
+            try {
+                if (levelImage != null) {
+                    Files.deleteIfExists(levelImage);
+                }
+            } finally {
+                tileRenderPermits.release();
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public boolean checkFiles(CompareRequest request) {
         List<LoadDocumentRequest> guids = request.getGuids();
+        // the source should be compared at least with one target
+        if (guids == null || guids.size() < 2) {
+            return false;
+        }
         LoadDocumentRequest loadDocumentRequestFirst = guids.get(0);
-        LoadDocumentRequest loadDocumentRequestSecond = guids.get(1);
         String sourceExtension = parseFileExtension(loadDocumentRequestFirst.getGuid());
-        String targetExtension = parseFileExtension(loadDocumentRequestSecond.getGuid());
         assert sourceExtension != null : "sourceExtension is null";
-        assert targetExtension != null : "targetExtension is null";
         // check if files extensions are the same and support format file
-        return Objects.equals(sourceExtension, targetExtension) && checkSupportedFiles(sourceExtension.toLowerCase());
+        for (LoadDocumentRequest loadDocumentRequest : guids.subList(1, guids.size())) {
+            String targetExtension = parseFileExtension(loadDocumentRequest.getGuid());
+            assert targetExtension != null : "targetExtension is null";
+            if (!Objects.equals(sourceExtension, targetExtension)) {
+                return false;
+            }
+        }
+        return checkSupportedFiles(sourceExtension.toLowerCase());
     }
 
     /**
@@ -331,20 +994,20 @@ public class ComparisonServiceImpl implements ComparisonService {
         }
     }
 
-    private static Comparer compareFiles(CompareRequest compareRequest, String[] resultGuid) throws FileNotFoundException {
-        String firstPath = compareRequest.getGuids().get(0).getGuid();
-        String secondPath = compareRequest.getGuids().get(1).getGuid();
+    private static Comparer compareFiles(CompareRequest compareRequest, SharedSource sharedSource, String[] resultGuid) throws IOException {
+        List<LoadDocumentRequest> guids = compareRequest.getGuids();
+        LoadDocumentRequest source = guids.get(0);
 
         // create new comparer
-        Comparer comparer = new Comparer(firstPath, getLoadOptions(compareRequest.getGuids().get(0).getPassword()));
+        InputStream sourceStream = sharedSource == null ? null : sharedSource.openStream();
+        Comparer comparer = sourceStream == null
+                ? new Comparer(source.getGuid(), getLoadOptions(source.getPassword()))
+                : new Comparer(sourceStream, getLoadOptions(source.getPassword()));
 
-        comparer.add(secondPath, getLoadOptions(compareRequest.getGuids().get(1).getPassword()));
-        CompareOptions compareOptions = new CompareOptions();
-        compareOptions.setCalculateCoordinates(true);
-
-        if ("pdf".equals(Utils.parseFileExtension(resultGuid[0]))) {
-            compareOptions.setDetalisationLevel(DetalisationLevel.High);
+        for (LoadDocumentRequest target : guids.subList(1, guids.size())) {
+            comparer.add(target.getGuid(), getLoadOptions(target.getPassword()));
         }
+        CompareOptions compareOptions = getCompareOptions(Utils.parseFileExtension(resultGuid[0]));
         OutputStream outputStream = new FileOutputStream(resultGuid[0]);
         try {
             final java.nio.file.Path result = comparer.compare(outputStream, compareOptions);
@@ -357,4 +1020,118 @@ public class ComparisonServiceImpl implements ComparisonService {
 
         return comparer;
     }
+
+    private static CompareOptions getCompareOptions(String fileExt) {
+        CompareOptions compareOptions = new CompareOptions();
+        compareOptions.setCalculateCoordinates(true);
+
+        if ("pdf".equals(fileExt)) {
+            compareOptions.setDetalisationLevel(DetalisationLevel.High);
+        }
+        return compareOptions;
+    }
+
+    /**
+     * Describe options created by getCompareOptions, the description is a part of the result cache key
+     *
+     * @param fileExt extension of compared files
+     * @return options description
+     */
+    private static String getCompareOptionsKey(String fileExt) {
+        return fileExt + "|coordinates|" + ("pdf".equals(fileExt) ? DetalisationLevel.High : "default");
+    }
+
+    /**
+     * Source document compared with several targets, the file is read only when one of
+     * comparisons is not cached, and only if it is not larger than MAX_SHARED_SOURCE_SIZE
+     */
+    private static class SharedSource {
+        private final String documentGuid;
+        private byte[] content;
+        private boolean tooLarge;
+
+        private SharedSource(String documentGuid) {
+            this.documentGuid = documentGuid;
+        }
+
+        /**
+         * @return content of the source, null if the source should be read from the file
+         */
+        private synchronized InputStream openStream() throws IOException {
+            if (content == null && !tooLarge) {
+                java.nio.file.Path path = Paths.get(documentGuid);
+                if (Files.size(path) > MAX_SHARED_SOURCE_SIZE) {
+                    tooLarge = true;
+                } else {
+                    content = Files.readAllBytes(path);
+                }
+            }
+            return tooLarge ? null : new ByteArrayInputStream(content);
+        }
+    }
+
+    /**
+     * Document which is opened only when its pages are not cached,
+     * the opened document is leased from the session pool, result documents are pinned
+     * in the result directory while they are rendered
+     */
+    private class OpenedDocument implements AutoCloseable {
+        private final String documentGuid;
+        private final String password;
+        private final ResultDirectorySweeper.Pin pin;
+        private DocumentSession session;
+        private DocumentPages documentPages;
+
+        private OpenedDocument(String documentGuid, String password) {
+            this.documentGuid = documentGuid;
+            this.password = password;
+            this.pin = resultDirectorySweeper.pin(documentGuid);
+        }
+
+        private Comparer getComparer() {
+            Comparer comparer = tryGetComparer();
+            if (comparer == null) {
+                throw new TotalGroupDocsException("Document is used by other requests");
+            }
+            return comparer;
+        }
+
+        /**
+         * Get the comparer, renders in background do not wait for the document used by other requests
+         *
+         * @return comparer, null if the document is rendered in background and it is used
+         */
+        private Comparer tryGetComparer() {
+            if (session == null) {
+                session = PagePrefetcher.isPrefetching()
+                        ? documentSessionPool.tryAcquire(documentGuid, password)
+                        : documentSessionPool.acquire(documentGuid, password);
+                if (session == null) {
+                    return null;
+                }
+            }
+            return session.getComparer();
+        }
+
+        private DocumentPages getPages() {
+            if (documentPages == null) {
+                documentPages = documentInfoCache.get(documentGuid, password);
+            }
+            if (documentPages == null) {
+                documentPages = documentInfoCache.put(documentGuid, password, getComparer().getSource().getDocumentInfo());
+            }
+            return documentPages;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (session != null) {
+                    session.close();
+                }
+            } finally {
+                pin.close();
+            }
+        }
+    }
 }
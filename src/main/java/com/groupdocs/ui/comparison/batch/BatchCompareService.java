@@ -0,0 +1,135 @@
+package com.groupdocs.ui.comparison.batch;
+
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.comparison.ComparisonService;
+import com.groupdocs.ui.comparison.model.request.BatchCompareRequest;
+import com.groupdocs.ui.comparison.model.request.CompareRequest;
+import com.groupdocs.ui.comparison.model.response.BatchCompareResultEntity;
+import com.groupdocs.ui.comparison.model.response.CompareResultResponse;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Comparisons of many pairs of documents on the work-stealing pool,
+ * results are reported in the order of completion
+ */
+@Service
+public class BatchCompareService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchCompareService.class);
+
+    public static final String DONE = "done";
+    public static final String FAILED = "failed";
+
+    /**
+     * Receives results of compared pairs one by one
+     */
+    public interface ResultWriter {
+        void write(BatchCompareResultEntity result) throws IOException;
+    }
+
+    @Autowired
+    private ComparisonService comparisonService;
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void init() {
+        int parallelism = Math.max(1, comparisonConfiguration.getBatchCompareParallelism());
+        pool = new ForkJoinPool(parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("batch-compare-" + thread.getPoolIndex());
+                return thread;
+            }
+        }, null, true);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Compare all pairs, failed comparisons are reported and do not stop others
+     *
+     * @param batchCompareRequest pairs of documents
+     * @param writer              receives the result of every pair as soon as it is compared
+     * @throws IOException when the writer fails, remaining comparisons are cancelled
+     */
+    public void compare(BatchCompareRequest batchCompareRequest, ResultWriter writer) throws IOException {
+        List<BatchCompareRequest.Pair> pairs = batchCompareRequest.getPairs();
+        if (pairs == null || pairs.isEmpty()) {
+            throw new TotalGroupDocsException("Pairs of documents are required");
+        }
+        CompletionService<BatchCompareResultEntity> completionService = new ExecutorCompletionService<>(pool);
+        List<Future<BatchCompareResultEntity>> comparisons = new ArrayList<>();
+        try {
+            for (int i = 0; i < pairs.size(); i++) {
+                final BatchCompareRequest.Pair pair = pairs.get(i);
+                final String id = StringUtils.isEmpty(pair.getId()) ? String.valueOf(i) : pair.getId();
+                comparisons.add(completionService.submit(new Callable<BatchCompareResultEntity>() {
+                    @Override
+                    public BatchCompareResultEntity call() {
+                        return comparePair(id, pair);
+                    }
+                }));
+            }
+            for (int i = 0; i < comparisons.size(); i++) {
+                writer.write(completionService.take().get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TotalGroupDocsException(ex.getMessage(), ex);
+        } catch (ExecutionException ex) {
+            // comparePair reports all failures in results
+            throw new TotalGroupDocsException(ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            // the client is gone, nobody waits for remaining results
+            for (Future<BatchCompareResultEntity> comparison : comparisons) {
+                comparison.cancel(false);
+            }
+        }
+    }
+
+    private BatchCompareResultEntity comparePair(String id, BatchCompareRequest.Pair pair) {
+        BatchCompareResultEntity result = new BatchCompareResultEntity();
+        result.setId(id);
+        try {
+            if (pair.getSource() == null || pair.getTarget() == null) {
+                throw new TotalGroupDocsException("Source and target documents are required");
+            }
+            CompareRequest compareRequest = new CompareRequest();
+            compareRequest.setGuids(Arrays.asList(pair.getSource(), pair.getTarget()));
+            if (!comparisonService.checkFiles(compareRequest)) {
+                throw new TotalGroupDocsException("Document types are different");
+            }
+            // pages are rendered only when the client opens the result
+            CompareResultResponse compareResultResponse = comparisonService.compareWithoutPages(compareRequest);
+            result.setGuid(compareResultResponse.getGuid());
+            result.setExtension(compareResultResponse.getExtension());
+            result.setChangeCount(compareResultResponse.getChanges() == null ? 0 : compareResultResponse.getChanges().length);
+            result.setPageCount(compareResultResponse.getPages() == null ? 0 : compareResultResponse.getPages().size());
+            result.setStatus(DONE);
+        } catch (Exception ex) {
+            logger.error("Exception occurred in batch comparison {}", id, ex);
+            result.setMessage(ex.getMessage());
+            result.setStatus(FAILED);
+        }
+        return result;
+    }
+}
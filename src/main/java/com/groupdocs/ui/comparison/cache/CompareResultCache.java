@@ -0,0 +1,243 @@
+package com.groupdocs.ui.comparison.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.comparison.model.response.CompareResultResponse;
+import com.groupdocs.ui.comparison.result.ResultDirectorySweeper;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import com.groupdocs.ui.model.response.PageDescriptionEntity;
+import com.groupdocs.ui.util.FileHashes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Cache of comparison results
+ * <p>
+ * Results are identified by content hashes of compared documents and comparison options.
+ * The cache keeps changes and page descriptions (without images) of the result, the result
+ * document itself stays in the result directory and the entry is dropped when the document
+ * is removed from there. Results are returned with the pinned document, so the document
+ * is not removed while the result is used.
+ */
+@Component
+public class CompareResultCache {
+    private static final Logger logger = LoggerFactory.getLogger(CompareResultCache.class);
+
+    public static final String RESULTS_DIRECTORY_NAME = "results";
+    private static final long MEGABYTE = 1024 * 1024;
+
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ResultDirectorySweeper resultDirectorySweeper;
+
+    private DiskLruCache cache;
+    private long maxAge;
+    /**
+     * Comparisons in progress by key, identical requests wait for the running one
+     */
+    private final ConcurrentMap<String, FutureTask<PinnedResult>> inProgress = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        cache = new DiskLruCache(Paths.get(comparisonConfiguration.getCacheDirectory(), RESULTS_DIRECTORY_NAME),
+                comparisonConfiguration.getResultCacheSize() * MEGABYTE);
+        maxAge = TimeUnit.MINUTES.toMillis(comparisonConfiguration.getResultCacheTtl());
+    }
+
+    /**
+     * Get the key of the comparison result
+     *
+     * @param sourceHash content hash of the source document
+     * @param targetHash content hash of the target document
+     * @param passwords  fingerprint of passwords of the documents, results of protected documents
+     *                   are not returned for other passwords
+     * @param options    description of comparison options
+     * @return result key
+     */
+    public static String getKey(String sourceHash, String targetHash, String passwords, String options) {
+        return FileHashes.sha256(sourceHash + '|' + targetHash + '|' + passwords + '|' + options);
+    }
+
+    /**
+     * Get cached comparison result or compare documents
+     * <p>
+     * Cached results are returned without page images. Every caller gets its own copy of the result,
+     * the result of the running comparison is not shared with requests which wait for it.
+     *
+     * @param key     result key
+     * @param compare comparison to run when there is no cached result, it returns the result with the pinned document
+     * @return comparison result with the pinned document, it should be closed when the result is used
+     */
+    public PinnedResult get(String key, Callable<PinnedResult> compare) {
+        PinnedResult cached = read(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        FutureTask<PinnedResult> task = new FutureTask<>(compare);
+        FutureTask<PinnedResult> running = inProgress.putIfAbsent(key, task);
+        try {
+            if (running == null) {
+                try {
+                    task.run();
+                    PinnedResult result = task.get();
+                    write(key, result.getResult());
+                    return result;
+                } finally {
+                    inProgress.remove(key, task);
+                }
+            }
+            // the same comparison is running, use its result
+            CompareResultResponse result = running.get().getResult();
+            cached = read(key);
+            if (cached != null) {
+                return cached;
+            }
+            // the result is not cached, the document can be removed already
+            ResultDirectorySweeper.Pin pin = resultDirectorySweeper.pin(result.getGuid());
+            if (!new File(result.getGuid()).isFile()) {
+                pin.close();
+                throw new TotalGroupDocsException("Comparison result is removed");
+            }
+            return new PinnedResult(copy(result), pin);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof TotalGroupDocsException) {
+                throw (TotalGroupDocsException) cause;
+            }
+            throw new TotalGroupDocsException(cause.getMessage(), cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TotalGroupDocsException(ex.getMessage(), ex);
+        }
+    }
+
+    private PinnedResult read(String key) {
+        byte[] data = cache.read(getEntryKey(key));
+        if (data == null) {
+            return null;
+        }
+        try {
+            CachedResult cachedResult = objectMapper.readValue(data, CachedResult.class);
+            CompareResultResponse result = cachedResult.getResult();
+            boolean expired = maxAge > 0 && System.currentTimeMillis() - cachedResult.getCreated() > maxAge;
+            if (!expired) {
+                // the document is pinned before it is checked, so it is not removed after the check
+                ResultDirectorySweeper.Pin pin = resultDirectorySweeper.pin(result.getGuid());
+                if (new File(result.getGuid()).isFile()) {
+                    return new PinnedResult(result, pin);
+                }
+                pin.close();
+            }
+        } catch (IOException ex) {
+            logger.error("Exception occurred while reading cached result {}", key, ex);
+        }
+        cache.remove(getEntryKey(key));
+        return null;
+    }
+
+    private void write(String key, CompareResultResponse result) {
+        final CachedResult cachedResult = new CachedResult();
+        cachedResult.setCreated(System.currentTimeMillis());
+        cachedResult.setResult(copy(result));
+        try {
+            cache.put(getEntryKey(key), new DiskLruCache.EntryWriter() {
+                @Override
+                public void write(OutputStream outputStream) throws IOException {
+                    objectMapper.writeValue(outputStream, cachedResult);
+                }
+            });
+        } catch (IOException ex) {
+            logger.error("Exception occurred while caching result {}", key, ex);
+        }
+    }
+
+    /**
+     * Copy the result without page images and loaded states of pages, page images are cached separately
+     */
+    private static CompareResultResponse copy(CompareResultResponse result) {
+        CompareResultResponse stored = new CompareResultResponse();
+        stored.setChanges(result.getChanges() == null ? null : result.getChanges().clone());
+        stored.setGuid(result.getGuid());
+        stored.setExtension(result.getExtension());
+        List<PageDescriptionEntity> pages = new ArrayList<>();
+        for (PageDescriptionEntity page : result.getPages()) {
+            PageDescriptionEntity storedPage = new PageDescriptionEntity();
+            storedPage.setAngle(page.getAngle());
+            storedPage.setWidth(page.getWidth());
+            storedPage.setHeight(page.getHeight());
+            storedPage.setNumber(page.getNumber());
+            storedPage.setUrl(page.getUrl());
+            pages.add(storedPage);
+        }
+        stored.setPages(pages);
+        return stored;
+    }
+
+    private static String getEntryKey(String key) {
+        return key.substring(0, 2) + "/" + key + ".json";
+    }
+
+    /**
+     * Comparison result with the pinned result document
+     */
+    public static class PinnedResult implements AutoCloseable {
+        private final CompareResultResponse result;
+        private final ResultDirectorySweeper.Pin pin;
+
+        public PinnedResult(CompareResultResponse result, ResultDirectorySweeper.Pin pin) {
+            this.result = result;
+            this.pin = pin;
+        }
+
+        public CompareResultResponse getResult() {
+            return result;
+        }
+
+        /**
+         * Unpin the result document
+         */
+        @Override
+        public void close() {
+            pin.close();
+        }
+    }
+
+    /**
+     * Cache entry content
+     */
+    public static class CachedResult {
+        private long created;
+        private CompareResultResponse result;
+
+        public long getCreated() {
+            return created;
+        }
+
+        public void setCreated(long created) {
+            this.created = created;
+        }
+
+        public CompareResultResponse getResult() {
+            return result;
+        }
+
+        public void setResult(CompareResultResponse result) {
+            this.result = result;
+        }
+    }
+}
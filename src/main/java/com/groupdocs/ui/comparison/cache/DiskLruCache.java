@@ -0,0 +1,232 @@
+package com.groupdocs.ui.comparison.cache;
+
+import com.groupdocs.ui.config.DefaultDirectories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * Files cache in a directory limited by total size
+ * <p>
+ * Entries are written to a temporary file and atomically moved to their place, so readers
+ * never see a partially written entry. Least recently used entries are removed when the size
+ * limit is exceeded. Access time is kept in the file modification time, so the usage order
+ * survives restarts.
+ */
+public class DiskLruCache {
+    private static final Logger logger = LoggerFactory.getLogger(DiskLruCache.class);
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Writer of the entry content
+     */
+    public interface EntryWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+
+    private final Path directory;
+    private final long maxSize;
+    /**
+     * Entry sizes by key in access order
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    /**
+     * @param directory cache directory, created if it doesn't exist
+     * @param maxSize   maximum total size of entries in bytes
+     */
+    public DiskLruCache(Path directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        DefaultDirectories.makeDirs(directory);
+        load();
+    }
+
+    /**
+     * Get the file of the entry
+     *
+     * @param key entry key, relative path of the entry file with '/' separators
+     * @return entry file or null if there is no such entry
+     */
+    public File get(String key) {
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                return null;
+            }
+        }
+        File file = resolve(key);
+        if (!file.setLastModified(System.currentTimeMillis()) && !file.exists()) {
+            // removed outside of the cache
+            remove(key);
+            return null;
+        }
+        return file;
+    }
+
+    /**
+     * Read the entry content
+     *
+     * @param key entry key
+     * @return entry content or null if there is no such entry
+     */
+    public byte[] read(String key) {
+        File file = get(key);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (NoSuchFileException ex) {
+            remove(key);
+            return null;
+        } catch (IOException ex) {
+            logger.error("Exception occurred while reading cache entry {}", key, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Put the entry content
+     *
+     * @param key  entry key
+     * @param data entry content
+     * @return entry file
+     */
+    public File put(String key, final byte[] data) throws IOException {
+        return put(key, new EntryWriter() {
+            @Override
+            public void write(OutputStream outputStream) throws IOException {
+                outputStream.write(data);
+            }
+        });
+    }
+
+    /**
+     * Put the entry content
+     *
+     * @param key    entry key
+     * @param writer writer of the entry content
+     * @return entry file
+     */
+    public File put(String key, EntryWriter writer) throws IOException {
+        Path target = resolve(key).toPath();
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMP_SUFFIX);
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                writer.write(outputStream);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        long length = Files.size(target);
+        List<String> evicted;
+        synchronized (this) {
+            Long previous = entries.put(key, length);
+            size += length - (previous == null ? 0 : previous);
+            evicted = evict();
+        }
+        delete(evicted);
+        return target.toFile();
+    }
+
+    /**
+     * Remove the entry
+     *
+     * @param key entry key
+     */
+    public void remove(String key) {
+        synchronized (this) {
+            Long length = entries.remove(key);
+            if (length == null) {
+                return;
+            }
+            size -= length;
+        }
+        delete(Collections.singletonList(key));
+    }
+
+    /**
+     * Get total size of entries
+     *
+     * @return size in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    private List<String> evict() {
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            size -= eldest.getValue();
+            evicted.add(eldest.getKey());
+            iterator.remove();
+        }
+        return evicted;
+    }
+
+    private void delete(List<String> keys) {
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(resolve(key).toPath());
+            } catch (IOException ex) {
+                // the file can be opened by a reader, it will be removed on the next start
+                logger.warn("Can not remove cache entry {}", key);
+            }
+        }
+    }
+
+    private File resolve(String key) {
+        return directory.resolve(key.replace('/', File.separatorChar)).toFile();
+    }
+
+    /**
+     * Restore entries of the previous run in the order of their last access
+     */
+    private void load() {
+        final List<Map.Entry<String, BasicFileAttributes>> files = new ArrayList<>();
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                        // unfinished write
+                        Files.deleteIfExists(file);
+                    } else {
+                        String key = directory.relativize(file).toString().replace(File.separatorChar, '/');
+                        files.add(new AbstractMap.SimpleEntry<>(key, attributes));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException ex) {
+            logger.error("Exception occurred while loading cache {}", directory, ex);
+        }
+        Collections.sort(files, new Comparator<Map.Entry<String, BasicFileAttributes>>() {
+            @Override
+            public int compare(Map.Entry<String, BasicFileAttributes> o1, Map.Entry<String, BasicFileAttributes> o2) {
+                return o1.getValue().lastModifiedTime().compareTo(o2.getValue().lastModifiedTime());
+            }
+        });
+        List<String> evicted;
+        synchronized (this) {
+            for (Map.Entry<String, BasicFileAttributes> file : files) {
+                entries.put(file.getKey(), file.getValue().size());
+                size += file.getValue().size();
+            }
+            evicted = evict();
+        }
+        delete(evicted);
+    }
+}
@@ -0,0 +1,88 @@
+package com.groupdocs.ui.comparison.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.groupdocs.comparison.interfaces.IDocumentInfo;
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import com.groupdocs.ui.util.FileHashes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Cache of page count and page sizes of documents
+ * <p>
+ * Entries are identified by the document path, modification time, size and password,
+ * so a changed document is opened again and the entry of its previous version is removed
+ */
+@Component
+public class DocumentInfoCache {
+
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+
+    private Cache<String, DocumentPages> cache;
+    /**
+     * Last known key by document path, bounded like the cache, an evicted path only leaves
+     * the entry of its previous version to be evicted by size
+     */
+    private Cache<String, String> documentKeys;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(comparisonConfiguration.getDocumentInfoCacheSize())
+                .build();
+        documentKeys = CacheBuilder.newBuilder()
+                .maximumSize(comparisonConfiguration.getDocumentInfoCacheSize())
+                .build();
+    }
+
+    /**
+     * Get cached pages of the document
+     *
+     * @param documentGuid path to document
+     * @param password     document password
+     * @return document pages or null if they are not cached
+     */
+    public DocumentPages get(String documentGuid, String password) {
+        return cache.getIfPresent(getKey(documentGuid, password));
+    }
+
+    /**
+     * Save pages of the opened document
+     *
+     * @param documentGuid path to document
+     * @param password     document password
+     * @param documentInfo information of the opened document
+     * @return document pages
+     */
+    public DocumentPages put(String documentGuid, String password, IDocumentInfo documentInfo) {
+        DocumentPages documentPages = new DocumentPages(documentInfo);
+        cache.put(getKey(documentGuid, password), documentPages);
+        return documentPages;
+    }
+
+    private String getKey(String documentGuid, String password) {
+        try {
+            File file = new File(documentGuid);
+            String path = file.getCanonicalPath();
+            // passwords are not kept in memory as is
+            String passwordKey = StringUtils.isEmpty(password) ? "" : FileHashes.sha256(password);
+            String key = FileHashes.getKey(file) + '|' + passwordKey;
+            String previousKey = documentKeys.asMap().put(path + '|' + passwordKey, key);
+            if (previousKey != null && !previousKey.equals(key)) {
+                // the document is changed
+                cache.invalidate(previousKey);
+            }
+            return key;
+        } catch (IOException ex) {
+            throw new TotalGroupDocsException(ex.getMessage(), ex);
+        }
+    }
+}
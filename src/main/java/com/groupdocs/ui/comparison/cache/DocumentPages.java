@@ -0,0 +1,46 @@
+package com.groupdocs.ui.comparison.cache;
+
+import com.groupdocs.comparison.interfaces.IDocumentInfo;
+import com.groupdocs.comparison.result.PageInfo;
+
+import java.util.List;
+
+/**
+ * Count and sizes of document pages
+ */
+public class DocumentPages {
+    private final int[] widths;
+    private final int[] heights;
+
+    public DocumentPages(IDocumentInfo documentInfo) {
+        final List<PageInfo> pagesInfo = documentInfo.getPagesInfo();
+        final int pageCount = documentInfo.getPageCount();
+        widths = new int[pageCount];
+        heights = new int[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            final PageInfo pageInfo = pagesInfo.get(i);
+            widths[i] = pageInfo.getWidth();
+            heights[i] = pageInfo.getHeight();
+        }
+    }
+
+    public int getPageCount() {
+        return widths.length;
+    }
+
+    /**
+     * @param pageNumber zero-based page number
+     * @return page width
+     */
+    public int getWidth(int pageNumber) {
+        return widths[pageNumber];
+    }
+
+    /**
+     * @param pageNumber zero-based page number
+     * @return page height
+     */
+    public int getHeight(int pageNumber) {
+        return heights[pageNumber];
+    }
+}
@@ -0,0 +1,166 @@
+package com.groupdocs.ui.comparison.cache;
+
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.comparison.render.PageImageOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Cache of rendered page images
+ * <p>
+ * Images are identified by the content hash of the document, so the cache stays valid
+ * while the document is not changed, regardless of its path. Thumbnails are kept in their own
+ * directory, so browsing through large page images does not evict them, as well as tiles
+ * of zoom levels.
+ */
+@Component
+public class PageImageCache {
+    private static final Logger logger = LoggerFactory.getLogger(PageImageCache.class);
+
+    public static final String PAGES_DIRECTORY_NAME = "pages";
+    public static final String THUMBNAILS_DIRECTORY_NAME = "thumbnails";
+    public static final String TILES_DIRECTORY_NAME = "tiles";
+    public static final String PNG = PageImageOptions.PNG;
+    private static final long MEGABYTE = 1024 * 1024;
+
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+
+    private DiskLruCache cache;
+    private DiskLruCache thumbnails;
+    private DiskLruCache tiles;
+
+    @PostConstruct
+    public void init() {
+        cache = new DiskLruCache(Paths.get(comparisonConfiguration.getCacheDirectory(), PAGES_DIRECTORY_NAME),
+                comparisonConfiguration.getPageCacheSize() * MEGABYTE);
+        thumbnails = new DiskLruCache(Paths.get(comparisonConfiguration.getCacheDirectory(), THUMBNAILS_DIRECTORY_NAME),
+                comparisonConfiguration.getThumbnailCacheSize() * MEGABYTE);
+        tiles = new DiskLruCache(Paths.get(comparisonConfiguration.getCacheDirectory(), TILES_DIRECTORY_NAME),
+                comparisonConfiguration.getTileCacheSize() * MEGABYTE);
+    }
+
+    /**
+     * Get cached page image file
+     *
+     * @param documentHash content hash of the document
+     * @param pageNumber   zero-based page number
+     * @param width        image width
+     * @param height       image height
+     * @param format       image format
+     * @return image file or null if the page is not cached
+     */
+    public File get(String documentHash, int pageNumber, int width, int height, String format) {
+        return cache.get(getKey(documentHash, pageNumber, width, height, format));
+    }
+
+    /**
+     * Read cached page image
+     *
+     * @return image data or null if the page is not cached
+     */
+    public byte[] read(String documentHash, int pageNumber, int width, int height, String format) {
+        return cache.read(getKey(documentHash, pageNumber, width, height, format));
+    }
+
+    /**
+     * Save page image, failures are logged only as the image can always be rendered again
+     *
+     * @return image file or null if the image is not saved
+     */
+    public File put(String documentHash, int pageNumber, int width, int height, String format, byte[] data) {
+        try {
+            return cache.put(getKey(documentHash, pageNumber, width, height, format), data);
+        } catch (IOException ex) {
+            logger.error("Exception occurred while caching page {} of {}", pageNumber, documentHash, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Get cached page image file
+     *
+     * @param documentHash content hash of the document
+     * @param pageNumber   zero-based page number
+     * @param width        image width
+     * @param height       image height
+     * @param options      image format, thumbnails are taken from the thumbnails cache
+     * @return image file or null if the page is not cached
+     */
+    public File get(String documentHash, int pageNumber, int width, int height, PageImageOptions options) {
+        return getCache(options).get(getKey(documentHash, pageNumber, width, height, options.getVariant()));
+    }
+
+    /**
+     * Read cached page image
+     *
+     * @return image data or null if the page is not cached
+     */
+    public byte[] read(String documentHash, int pageNumber, int width, int height, PageImageOptions options) {
+        return getCache(options).read(getKey(documentHash, pageNumber, width, height, options.getVariant()));
+    }
+
+    /**
+     * Save page image, failures are logged only as the image can always be rendered again
+     *
+     * @return image file or null if the image is not saved
+     */
+    public File put(String documentHash, int pageNumber, int width, int height, PageImageOptions options, byte[] data) {
+        try {
+            return getCache(options).put(getKey(documentHash, pageNumber, width, height, options.getVariant()), data);
+        } catch (IOException ex) {
+            logger.error("Exception occurred while caching page {} of {}", pageNumber, documentHash, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Get cached tile file
+     *
+     * @param documentHash content hash of the document
+     * @param pageNumber   zero-based page number
+     * @param pyramid      name of the tile size and the scale of levels
+     * @param level        zero-based zoom level
+     * @param column       zero-based column
+     * @param row          zero-based row
+     * @param variant      format and quality of the tile
+     * @return tile file or null if the tile is not cached
+     */
+    public File getTile(String documentHash, int pageNumber, String pyramid, int level, int column, int row, String variant) {
+        return tiles.get(getTileKey(documentHash, pageNumber, pyramid, level, column, row, variant));
+    }
+
+    /**
+     * Save tile, failures are logged only as the tile can always be rendered again
+     *
+     * @return tile file or null if the tile is not saved
+     */
+    public File putTile(String documentHash, int pageNumber, String pyramid, int level, int column, int row, String variant, byte[] data) {
+        try {
+            return tiles.put(getTileKey(documentHash, pageNumber, pyramid, level, column, row, variant), data);
+        } catch (IOException ex) {
+            logger.error("Exception occurred while caching tile of page {} of {}", pageNumber, documentHash, ex);
+            return null;
+        }
+    }
+
+    private DiskLruCache getCache(PageImageOptions options) {
+        return options.isThumbnail() ? thumbnails : cache;
+    }
+
+    static String getKey(String documentHash, int pageNumber, int width, int height, String format) {
+        // group images by document and spread documents over subdirectories
+        return documentHash.substring(0, 2) + "/" + documentHash + "/" + pageNumber + "_" + width + "x" + height + "." + format;
+    }
+
+    static String getTileKey(String documentHash, int pageNumber, String pyramid, int level, int column, int row, String variant) {
+        return documentHash.substring(0, 2) + "/" + documentHash + "/" + pageNumber + "/" + pyramid + "/" + level + "/" + column + "_" + row + "." + variant;
+    }
+}
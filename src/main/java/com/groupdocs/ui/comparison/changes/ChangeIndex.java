@@ -0,0 +1,198 @@
+package com.groupdocs.ui.comparison.changes;
+
+import com.groupdocs.ui.comparison.model.response.ChangeInfoEntity;
+
+import java.util.*;
+
+/**
+ * Changes of one comparison result sorted by page and indexed by type and action
+ * <p>
+ * Positions in the sorted list never change, so the position after the last returned change
+ * is used as the cursor of the next page of the query.
+ */
+public class ChangeIndex {
+    private static final Comparator<ChangeInfoEntity> BY_PAGE = new Comparator<ChangeInfoEntity>() {
+        @Override
+        public int compare(ChangeInfoEntity o1, ChangeInfoEntity o2) {
+            int result = Integer.compare(getPage(o1), getPage(o2));
+            return result != 0 ? result : Integer.compare(o1.getId(), o2.getId());
+        }
+    };
+
+    private final ChangeInfoEntity[] changes;
+    /**
+     * Zero-based page number of every change
+     */
+    private final int[] pages;
+    private final int[] all;
+    private final Map<Integer, int[]> byType;
+    private final Map<Integer, int[]> byAction;
+    private final SortedMap<Integer, Integer> pageCounts = new TreeMap<>();
+    private final SortedMap<Integer, Integer> typeCounts = new TreeMap<>();
+    private final SortedMap<Integer, Integer> actionCounts = new TreeMap<>();
+
+    public ChangeIndex(ChangeInfoEntity[] changes) {
+        this.changes = changes.clone();
+        Arrays.sort(this.changes, BY_PAGE);
+        pages = new int[this.changes.length];
+        all = new int[this.changes.length];
+        Map<Integer, List<Integer>> typePositions = new HashMap<>();
+        Map<Integer, List<Integer>> actionPositions = new HashMap<>();
+        for (int i = 0; i < this.changes.length; i++) {
+            ChangeInfoEntity change = this.changes[i];
+            pages[i] = getPage(change);
+            all[i] = i;
+            addPosition(typePositions, change.getType(), i);
+            addPosition(actionPositions, change.getAction(), i);
+            increment(pageCounts, pages[i]);
+            increment(typeCounts, change.getType());
+            increment(actionCounts, change.getAction());
+        }
+        byType = toArrays(typePositions);
+        byAction = toArrays(actionPositions);
+    }
+
+    /**
+     * Find changes
+     *
+     * @param fromPage first zero-based page number, null for the first page
+     * @param toPage   last zero-based page number, null for the last page
+     * @param type     type of changes, null for all types
+     * @param action   action of changes, null for all actions
+     * @param position position to start from, 0 for the first page of the query
+     * @param count    maximum count of changes
+     * @param found    receives found changes
+     * @return position after the last found change, -1 if there are no more changes
+     */
+    public int find(Integer fromPage, Integer toPage, Integer type, Integer action, int position, int count, List<ChangeInfoEntity> found) {
+        int[] positions = getPositions(type, action);
+        for (int i = getStart(positions, fromPage, position); i < positions.length; i++) {
+            ChangeInfoEntity change = changes[positions[i]];
+            if (toPage != null && pages[positions[i]] > toPage) {
+                break;
+            }
+            if (!isMatched(change, type, action)) {
+                continue;
+            }
+            if (found.size() == count) {
+                return positions[i];
+            }
+            found.add(change);
+        }
+        return -1;
+    }
+
+    /**
+     * Get count of changes
+     *
+     * @param fromPage first zero-based page number, null for the first page
+     * @param toPage   last zero-based page number, null for the last page
+     * @param type     type of changes, null for all types
+     * @param action   action of changes, null for all actions
+     * @return count of changes
+     */
+    public int count(Integer fromPage, Integer toPage, Integer type, Integer action) {
+        int[] positions = getPositions(type, action);
+        int count = 0;
+        for (int i = getStart(positions, fromPage, 0); i < positions.length; i++) {
+            if (toPage != null && pages[positions[i]] > toPage) {
+                break;
+            }
+            if (isMatched(changes[positions[i]], type, action)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int size() {
+        return changes.length;
+    }
+
+    /**
+     * Count of changes by zero-based page number
+     */
+    public SortedMap<Integer, Integer> getPageCounts() {
+        return Collections.unmodifiableSortedMap(pageCounts);
+    }
+
+    /**
+     * Count of changes by type
+     */
+    public SortedMap<Integer, Integer> getTypeCounts() {
+        return Collections.unmodifiableSortedMap(typeCounts);
+    }
+
+    /**
+     * Count of changes by action
+     */
+    public SortedMap<Integer, Integer> getActionCounts() {
+        return Collections.unmodifiableSortedMap(actionCounts);
+    }
+
+    private int[] getPositions(Integer type, Integer action) {
+        int[] positions = all;
+        if (type != null) {
+            positions = byType.containsKey(type) ? byType.get(type) : new int[0];
+        }
+        if (action != null) {
+            int[] actionPositions = byAction.containsKey(action) ? byAction.get(action) : new int[0];
+            if (actionPositions.length < positions.length) {
+                positions = actionPositions;
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Get the index of the first position which is not before the start position and the page
+     */
+    private int getStart(int[] positions, Integer fromPage, int position) {
+        int low = 0;
+        int high = positions.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int candidate = positions[middle];
+            if (candidate < position || fromPage != null && pages[candidate] < fromPage) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isMatched(ChangeInfoEntity change, Integer type, Integer action) {
+        return (type == null || change.getType() == type) && (action == null || change.getAction() == action);
+    }
+
+    private static int getPage(ChangeInfoEntity change) {
+        return change.getPageInfo() == null ? 0 : change.getPageInfo().getId();
+    }
+
+    private static void addPosition(Map<Integer, List<Integer>> positions, int key, int position) {
+        List<Integer> list = positions.get(key);
+        if (list == null) {
+            list = new ArrayList<>();
+            positions.put(key, list);
+        }
+        list.add(position);
+    }
+
+    private static Map<Integer, int[]> toArrays(Map<Integer, List<Integer>> positions) {
+        Map<Integer, int[]> arrays = new HashMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : positions.entrySet()) {
+            int[] array = new int[entry.getValue().size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = entry.getValue().get(i);
+            }
+            arrays.put(entry.getKey(), array);
+        }
+        return arrays;
+    }
+
+    private static void increment(Map<Integer, Integer> counts, int key) {
+        Integer count = counts.get(key);
+        counts.put(key, count == null ? 1 : count + 1);
+    }
+}
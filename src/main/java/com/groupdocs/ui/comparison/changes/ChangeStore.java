@@ -0,0 +1,165 @@
+package com.groupdocs.ui.comparison.changes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.comparison.cache.DiskLruCache;
+import com.groupdocs.ui.comparison.model.request.ChangeQueryRequest;
+import com.groupdocs.ui.comparison.model.response.ChangeInfoEntity;
+import com.groupdocs.ui.comparison.model.response.ChangeQueryEntity;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import com.groupdocs.ui.util.FileHashes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Changes of comparison results by result guid
+ * <p>
+ * Changes are saved in the cache directory when the result is returned, recently queried
+ * results are kept indexed in memory.
+ */
+@Component
+public class ChangeStore {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeStore.class);
+
+    public static final String CHANGES_DIRECTORY_NAME = "changes";
+    private static final long MEGABYTE = 1024 * 1024;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private DiskLruCache cache;
+    private Cache<String, ChangeIndex> indexes;
+
+    @PostConstruct
+    public void init() {
+        cache = new DiskLruCache(Paths.get(comparisonConfiguration.getCacheDirectory(), CHANGES_DIRECTORY_NAME),
+                comparisonConfiguration.getChangeCacheSize() * MEGABYTE);
+        indexes = CacheBuilder.newBuilder()
+                .maximumWeight(comparisonConfiguration.getChangeIndexSize())
+                .weigher(new Weigher<String, ChangeIndex>() {
+                    @Override
+                    public int weigh(String key, ChangeIndex index) {
+                        return Math.max(1, index.size());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Save changes of the result, changes which are already saved are not written again
+     *
+     * @param resultGuid path to result document
+     * @param changes    changes of the result
+     */
+    public void put(String resultGuid, final ChangeInfoEntity[] changes) {
+        String key = getKey(resultGuid);
+        if (indexes.getIfPresent(key) != null || cache.get(key) != null) {
+            return;
+        }
+        indexes.put(key, new ChangeIndex(changes));
+        try {
+            cache.put(key, new DiskLruCache.EntryWriter() {
+                @Override
+                public void write(OutputStream outputStream) throws IOException {
+                    objectMapper.writeValue(outputStream, changes);
+                }
+            });
+        } catch (IOException ex) {
+            logger.error("Exception occurred while saving changes of {}", resultGuid, ex);
+        }
+    }
+
+    /**
+     * Find changes of the result
+     *
+     * @param changeQueryRequest result guid, filter and cursor of the page
+     * @return page of changes, the first page contains counts of changes
+     */
+    public ChangeQueryEntity query(ChangeQueryRequest changeQueryRequest) {
+        return query(changeQueryRequest, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Find changes of the result
+     *
+     * @param changeQueryRequest result guid, filter and cursor of the page
+     * @param maxPageSize        maximum count of changes in the page
+     * @return page of changes, the first page contains counts of changes
+     */
+    public ChangeQueryEntity query(ChangeQueryRequest changeQueryRequest, int maxPageSize) {
+        ChangeIndex index = getIndex(changeQueryRequest.getGuid());
+        Integer fromPage = changeQueryRequest.getFromPage();
+        Integer toPage = changeQueryRequest.getToPage();
+        Integer type = changeQueryRequest.getType();
+        Integer action = changeQueryRequest.getAction();
+        int count = changeQueryRequest.getCount() == null || changeQueryRequest.getCount() <= 0
+                ? DEFAULT_PAGE_SIZE : Math.min(changeQueryRequest.getCount(), maxPageSize);
+        String cursor = changeQueryRequest.getCursor();
+        int position = 0;
+        if (!StringUtils.isEmpty(cursor)) {
+            try {
+                position = Integer.parseInt(cursor);
+            } catch (NumberFormatException ex) {
+                throw new TotalGroupDocsException("Incorrect cursor", ex);
+            }
+        }
+
+        List<ChangeInfoEntity> changes = new ArrayList<>();
+        int next = index.find(fromPage, toPage, type, action, position, count, changes);
+        ChangeQueryEntity changeQueryEntity = new ChangeQueryEntity();
+        changeQueryEntity.setChanges(changes);
+        changeQueryEntity.setNextCursor(next < 0 ? null : String.valueOf(next));
+        if (StringUtils.isEmpty(cursor)) {
+            changeQueryEntity.setTotal(index.count(fromPage, toPage, type, action));
+            changeQueryEntity.setPageCounts(index.getPageCounts());
+            changeQueryEntity.setTypeCounts(index.getTypeCounts());
+            changeQueryEntity.setActionCounts(index.getActionCounts());
+        }
+        return changeQueryEntity;
+    }
+
+    private ChangeIndex getIndex(String resultGuid) {
+        if (StringUtils.isEmpty(resultGuid)) {
+            throw new TotalGroupDocsException("Result guid is required");
+        }
+        String key = getKey(resultGuid);
+        ChangeIndex index = indexes.getIfPresent(key);
+        if (index != null) {
+            return index;
+        }
+        byte[] data = cache.read(key);
+        if (data == null) {
+            throw new TotalGroupDocsException("Changes of the result are not found, compare documents again");
+        }
+        try {
+            index = new ChangeIndex(objectMapper.readValue(data, ChangeInfoEntity[].class));
+        } catch (IOException ex) {
+            cache.remove(key);
+            throw new TotalGroupDocsException("Exception occurred while reading changes", ex);
+        }
+        indexes.put(key, index);
+        return index;
+    }
+
+    private static String getKey(String resultGuid) {
+        String hash = FileHashes.sha256(Paths.get(resultGuid).toAbsolutePath().normalize().toString());
+        return hash.substring(0, 2) + "/" + hash + ".json";
+    }
+}
@@ -0,0 +1,230 @@
+package com.groupdocs.ui.comparison.changes;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.groupdocs.comparison.result.Rectangle;
+import com.groupdocs.comparison.result.StyleChangeInfo;
+import com.groupdocs.ui.comparison.model.response.ChangeInfoEntity;
+import com.groupdocs.ui.comparison.model.response.ChangeQueryEntity;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Columnar encoding of changes
+ * <p>
+ * Every field of changes is written as an array of primitives, strings (texts, authors and
+ * style values) are written once in the string table and referenced by index, -1 is null.
+ * Variable-length fields (authors and style changes) have offsets arrays of count + 1 elements,
+ * values of the change i are between offsets[i] and offsets[i + 1]. Boxes are written as
+ * x, y, width and height of every change, style changes as property, old value and new value.
+ * <p>
+ * The binary variant is big-endian: magic "GDCH", version, next cursor (-1 or string index),
+ * total (-1 if absent), counts by page, type and action (size, then key and value pairs),
+ * string table (size, then length and UTF-8 bytes), count of changes and the arrays
+ * in the order of the JSON variant, authors and styles arrays are prefixed by their length.
+ */
+public class CompactChanges {
+    public static final String JSON_VALUE = "application/vnd.groupdocs.compact-changes+json";
+    public static final String BINARY_VALUE = "application/vnd.groupdocs.compact-changes";
+    /**
+     * Maximum count of changes in the page, columns are small enough to return large pages
+     */
+    public static final int MAX_PAGE_SIZE = 100000;
+
+    private static final int MAGIC = 0x47444348;
+    private static final int VERSION = 1;
+
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+    private final int count;
+    private final int[] ids;
+    private final int[] actions;
+    private final int[] types;
+    private final int[] pages;
+    private final double[] boxes;
+    private final int[] texts;
+    private final int[] authorOffsets;
+    private final int[] authors;
+    private final int[] styleOffsets;
+    private final int[] styles;
+
+    public CompactChanges(List<ChangeInfoEntity> changes) {
+        count = changes.size();
+        ids = new int[count];
+        actions = new int[count];
+        types = new int[count];
+        pages = new int[count];
+        boxes = new double[count * 4];
+        texts = new int[count];
+        authorOffsets = new int[count + 1];
+        styleOffsets = new int[count + 1];
+        List<Integer> authorList = new ArrayList<>();
+        List<Integer> styleList = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ChangeInfoEntity change = changes.get(i);
+            ids[i] = change.getId();
+            actions[i] = change.getAction();
+            types[i] = change.getType();
+            pages[i] = change.getPageInfo() == null ? 0 : change.getPageInfo().getId();
+            Rectangle box = change.getBox();
+            if (box != null) {
+                boxes[i * 4] = box.getX();
+                boxes[i * 4 + 1] = box.getY();
+                boxes[i * 4 + 2] = box.getWidth();
+                boxes[i * 4 + 3] = box.getHeight();
+            }
+            texts[i] = intern(change.getText());
+            authorOffsets[i] = authorList.size();
+            if (change.getAuthors() != null) {
+                for (String author : change.getAuthors()) {
+                    authorList.add(intern(author));
+                }
+            }
+            styleOffsets[i] = styleList.size() / 3;
+            if (change.getStyleChanges() != null) {
+                for (StyleChangeInfo styleChange : change.getStyleChanges()) {
+                    styleList.add(intern(styleChange.getPropertyName()));
+                    styleList.add(intern(styleChange.getOldValue()));
+                    styleList.add(intern(styleChange.getNewValue()));
+                }
+            }
+        }
+        authorOffsets[count] = authorList.size();
+        styleOffsets[count] = styleList.size() / 3;
+        authors = toArray(authorList);
+        styles = toArray(styleList);
+    }
+
+    /**
+     * Write the page of changes as compact JSON
+     *
+     * @param changeQueryEntity page of changes
+     * @param generator         JSON generator
+     */
+    public static void writeJson(ChangeQueryEntity changeQueryEntity, JsonGenerator generator) throws IOException {
+        CompactChanges compactChanges = new CompactChanges(changeQueryEntity.getChanges());
+        generator.writeStartObject();
+        generator.writeStringField("nextCursor", changeQueryEntity.getNextCursor());
+        if (changeQueryEntity.getTotal() != null) {
+            generator.writeNumberField("total", changeQueryEntity.getTotal());
+            generator.writeObjectField("pageCounts", changeQueryEntity.getPageCounts());
+            generator.writeObjectField("typeCounts", changeQueryEntity.getTypeCounts());
+            generator.writeObjectField("actionCounts", changeQueryEntity.getActionCounts());
+        }
+        compactChanges.writeJson(generator);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Write the page of changes as compact binary
+     *
+     * @param changeQueryEntity page of changes
+     * @param outputStream      output stream
+     */
+    public static void writeBinary(ChangeQueryEntity changeQueryEntity, OutputStream outputStream) throws IOException {
+        CompactChanges compactChanges = new CompactChanges(changeQueryEntity.getChanges());
+        int nextCursor = compactChanges.intern(changeQueryEntity.getNextCursor());
+        DataOutputStream output = new DataOutputStream(outputStream);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(nextCursor);
+        output.writeInt(changeQueryEntity.getTotal() == null ? -1 : changeQueryEntity.getTotal());
+        writeCounts(output, changeQueryEntity.getPageCounts());
+        writeCounts(output, changeQueryEntity.getTypeCounts());
+        writeCounts(output, changeQueryEntity.getActionCounts());
+        compactChanges.writeBinary(output);
+        output.flush();
+    }
+
+    private void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeArrayFieldStart("strings");
+        for (String string : strings) {
+            generator.writeString(string);
+        }
+        generator.writeEndArray();
+        generator.writeNumberField("count", count);
+        writeArray(generator, "ids", ids);
+        writeArray(generator, "actions", actions);
+        writeArray(generator, "types", types);
+        writeArray(generator, "pages", pages);
+        generator.writeFieldName("boxes");
+        generator.writeArray(boxes, 0, boxes.length);
+        writeArray(generator, "texts", texts);
+        writeArray(generator, "authorOffsets", authorOffsets);
+        writeArray(generator, "authors", authors);
+        writeArray(generator, "styleOffsets", styleOffsets);
+        writeArray(generator, "styles", styles);
+    }
+
+    private void writeBinary(DataOutputStream output) throws IOException {
+        output.writeInt(strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+        output.writeInt(count);
+        writeArray(output, ids);
+        writeArray(output, actions);
+        writeArray(output, types);
+        writeArray(output, pages);
+        for (double value : boxes) {
+            output.writeDouble(value);
+        }
+        writeArray(output, texts);
+        writeArray(output, authorOffsets);
+        output.writeInt(authors.length);
+        writeArray(output, authors);
+        writeArray(output, styleOffsets);
+        output.writeInt(styles.length);
+        writeArray(output, styles);
+    }
+
+    private int intern(Object value) {
+        if (value == null) {
+            return -1;
+        }
+        String string = value.toString();
+        Integer index = stringIndexes.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.add(string);
+            stringIndexes.put(string, index);
+        }
+        return index;
+    }
+
+    private static void writeArray(JsonGenerator generator, String name, int[] values) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeArray(values, 0, values.length);
+    }
+
+    private static void writeArray(DataOutputStream output, int[] values) throws IOException {
+        for (int value : values) {
+            output.writeInt(value);
+        }
+    }
+
+    private static void writeCounts(DataOutputStream output, Map<Integer, Integer> counts) throws IOException {
+        if (counts == null) {
+            output.writeInt(0);
+            return;
+        }
+        output.writeInt(counts.size());
+        for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+            output.writeInt(entry.getKey());
+            output.writeInt(entry.getValue());
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,52 @@
+package com.groupdocs.ui.comparison.filetree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable list of directory entries
+ * <p>
+ * Entries are sorted by {@link FileTreeEntry#BY_NAME}, other orders are sorted on first use and kept
+ * while the directory is not changed.
+ */
+public class DirectorySnapshot {
+    private final List<FileTreeEntry> entries;
+    private final ConcurrentMap<Comparator<FileTreeEntry>, List<FileTreeEntry>> sortedEntries = new ConcurrentHashMap<>();
+
+    public DirectorySnapshot(List<FileTreeEntry> entries) {
+        List<FileTreeEntry> sorted = new ArrayList<>(entries);
+        Collections.sort(sorted, FileTreeEntry.BY_NAME);
+        this.entries = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * Get entries sorted by {@link FileTreeEntry#BY_NAME}
+     */
+    public List<FileTreeEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Get sorted entries
+     *
+     * @param order one of orders of {@link FileTreeEntry}
+     * @return unmodifiable list of entries
+     */
+    public List<FileTreeEntry> getEntries(Comparator<FileTreeEntry> order) {
+        if (order == FileTreeEntry.BY_NAME) {
+            return entries;
+        }
+        List<FileTreeEntry> sorted = sortedEntries.get(order);
+        if (sorted == null) {
+            List<FileTreeEntry> list = new ArrayList<>(entries);
+            Collections.sort(list, order);
+            sorted = Collections.unmodifiableList(list);
+            sortedEntries.putIfAbsent(order, sorted);
+        }
+        return sorted;
+    }
+}
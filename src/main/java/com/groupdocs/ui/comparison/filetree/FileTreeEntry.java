@@ -0,0 +1,154 @@
+package com.groupdocs.ui.comparison.filetree;
+
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * File or directory in the file tree index
+ */
+public class FileTreeEntry {
+    public static final String SORT_BY_NAME = "name";
+    public static final String SORT_BY_SIZE = "size";
+    public static final String SORT_BY_MODIFIED = "modified";
+
+    private static final Comparator<FileTreeEntry> NAME = new Comparator<FileTreeEntry>() {
+        @Override
+        public int compare(FileTreeEntry o1, FileTreeEntry o2) {
+            return o1.name.compareTo(o2.name);
+        }
+    };
+    private static final Comparator<FileTreeEntry> SIZE = new Comparator<FileTreeEntry>() {
+        @Override
+        public int compare(FileTreeEntry o1, FileTreeEntry o2) {
+            int result = Long.compare(o1.size, o2.size);
+            return result != 0 ? result : o1.name.compareTo(o2.name);
+        }
+    };
+    private static final Comparator<FileTreeEntry> MODIFIED = new Comparator<FileTreeEntry>() {
+        @Override
+        public int compare(FileTreeEntry o1, FileTreeEntry o2) {
+            int result = Long.compare(o1.lastModified, o2.lastModified);
+            return result != 0 ? result : o1.name.compareTo(o2.name);
+        }
+    };
+
+    /**
+     * Directories before files, then by name
+     */
+    public static final Comparator<FileTreeEntry> BY_NAME = directoriesFirst(NAME);
+    private static final Comparator<FileTreeEntry> BY_NAME_DESCENDING = directoriesFirst(Collections.reverseOrder(NAME));
+    private static final Comparator<FileTreeEntry> BY_SIZE = directoriesFirst(SIZE);
+    private static final Comparator<FileTreeEntry> BY_SIZE_DESCENDING = directoriesFirst(Collections.reverseOrder(SIZE));
+    private static final Comparator<FileTreeEntry> BY_MODIFIED = directoriesFirst(MODIFIED);
+    private static final Comparator<FileTreeEntry> BY_MODIFIED_DESCENDING = directoriesFirst(Collections.reverseOrder(MODIFIED));
+
+    private final String name;
+    private final String guid;
+    private final boolean directory;
+    private final boolean hidden;
+    private final long size;
+    private final long lastModified;
+
+    public FileTreeEntry(String name, String guid, boolean directory, boolean hidden, long size, long lastModified) {
+        this.name = name;
+        this.guid = guid;
+        this.directory = directory;
+        this.hidden = hidden;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Get the order of entries, directories are always before files
+     *
+     * @param sortBy     name, size or modified, name if empty
+     * @param descending flag of descending order
+     * @return comparator of entries
+     */
+    public static Comparator<FileTreeEntry> getComparator(String sortBy, boolean descending) {
+        if (StringUtils.isEmpty(sortBy) || SORT_BY_NAME.equals(sortBy)) {
+            return descending ? BY_NAME_DESCENDING : BY_NAME;
+        }
+        if (SORT_BY_SIZE.equals(sortBy)) {
+            return descending ? BY_SIZE_DESCENDING : BY_SIZE;
+        }
+        if (SORT_BY_MODIFIED.equals(sortBy)) {
+            return descending ? BY_MODIFIED_DESCENDING : BY_MODIFIED;
+        }
+        throw new TotalGroupDocsException("Unknown sort order " + sortBy);
+    }
+
+    /**
+     * Get the position in the sorted list of the key made by {@link #toCursor()}
+     *
+     * @param cursor  key of the last returned entry
+     * @param entries sorted entries
+     * @param order   order of entries
+     * @return index of the first entry after the key
+     */
+    public static int getPositionAfter(String cursor, List<FileTreeEntry> entries, Comparator<FileTreeEntry> order) {
+        FileTreeEntry key;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 4);
+            key = new FileTreeEntry(parts[3], null, "d".equals(parts[0]), false, Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new TotalGroupDocsException("Incorrect cursor", ex);
+        }
+        int index = Collections.binarySearch(entries, key, order);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Get the key of the entry which keeps its place in the sorted directory while other entries are
+     * added or removed
+     */
+    public String toCursor() {
+        String key = (directory ? "d" : "f") + ":" + size + ":" + lastModified + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Comparator<FileTreeEntry> directoriesFirst(final Comparator<FileTreeEntry> order) {
+        return new Comparator<FileTreeEntry>() {
+            @Override
+            public int compare(FileTreeEntry o1, FileTreeEntry o2) {
+                if (o1.directory != o2.directory) {
+                    return o1.directory ? -1 : 1;
+                }
+                return order.compare(o1, o2);
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Canonical path to the file
+     */
+    public String getGuid() {
+        return guid;
+    }
+
+    public boolean isDirectory() {
+        return directory;
+    }
+
+    public boolean isHidden() {
+        return hidden;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,337 @@
+package com.groupdocs.ui.comparison.filetree;
+
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * In-memory index of the files directory
+ * <p>
+ * The directory tree is read once with attributes of all entries and then kept current by
+ * file system events. Every directory is kept as an immutable snapshot sorted like the file tree,
+ * so listings are served without touching the storage. Directories which are not indexed yet
+ * are read on the first request.
+ */
+@Component
+public class FileTreeIndex {
+    private static final Logger logger = LoggerFactory.getLogger(FileTreeIndex.class);
+
+    /**
+     * Directories which are not shown in the file tree and change often
+     */
+    private static final String TEMP_DIRECTORY_NAME = "temp";
+
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+
+    private Path root;
+    private WatchService watchService;
+    private Thread watcher;
+    private final ConcurrentMap<Path, DirectorySnapshot> directories = new ConcurrentHashMap<>();
+    private final ConcurrentMap<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (!comparisonConfiguration.isFileTreeIndex()) {
+            return;
+        }
+        try {
+            root = Paths.get(comparisonConfiguration.getFilesDirectory()).toRealPath();
+            watchService = root.getFileSystem().newWatchService();
+        } catch (IOException | UnsupportedOperationException ex) {
+            logger.warn("Files directory is not indexed, files are listed on every request", ex);
+            return;
+        }
+        watcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch();
+            }
+        }, "file-tree-index");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                logger.warn("Exception occurred while closing watch service", ex);
+            }
+        }
+    }
+
+    /**
+     * Get entries of the directory sorted by {@link FileTreeEntry#BY_NAME}
+     *
+     * @param directory directory to list
+     * @return unmodifiable list of entries, null if the directory is not covered by the index
+     */
+    public List<FileTreeEntry> list(File directory) throws IOException {
+        DirectorySnapshot snapshot = getIndexed(directory);
+        return snapshot == null ? null : snapshot.getEntries();
+    }
+
+    /**
+     * Get the directory, directories which are not covered by the index are read from the storage
+     *
+     * @param directory directory to list
+     * @return entries of the directory, null if it is not a directory
+     */
+    public DirectorySnapshot getDirectory(File directory) throws IOException {
+        DirectorySnapshot snapshot = getIndexed(directory);
+        if (snapshot == null && directory.isDirectory()) {
+            snapshot = new DirectorySnapshot(readDirectory(directory.toPath().toRealPath()));
+        }
+        return snapshot;
+    }
+
+    private DirectorySnapshot getIndexed(File directory) throws IOException {
+        if (watchService == null) {
+            return null;
+        }
+        Path path;
+        try {
+            path = directory.toPath().toRealPath();
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+        if (!path.startsWith(root)) {
+            return null;
+        }
+        DirectorySnapshot snapshot = directories.get(path);
+        if (snapshot == null) {
+            if (!Files.isDirectory(path)) {
+                return null;
+            }
+            snapshot = scanDirectory(path);
+        }
+        return snapshot;
+    }
+
+    private void watch() {
+        long rescanInterval = TimeUnit.MINUTES.toMillis(comparisonConfiguration.getFileTreeRescanInterval());
+        long lastScan = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (lastScan == 0 || rescanInterval > 0 && System.currentTimeMillis() - lastScan > rescanInterval) {
+                    Set<Path> scanned = scanTree(root);
+                    // directories removed without events
+                    directories.keySet().retainAll(scanned);
+                    lastScan = System.currentTimeMillis();
+                }
+                WatchKey key = rescanInterval > 0 ? watchService.poll(rescanInterval, TimeUnit.MILLISECONDS) : watchService.take();
+                if (key != null) {
+                    processEvents(key);
+                }
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
+                return;
+            } catch (Exception ex) {
+                logger.error("Exception occurred while updating file tree index", ex);
+            }
+        }
+    }
+
+    /**
+     * Read the directory tree, directories which are not shown in the file tree are skipped
+     *
+     * @return read directories
+     */
+    private Set<Path> scanTree(final Path start) throws IOException {
+        final Set<Path> visited = new HashSet<>();
+        final Map<Path, List<FileTreeEntry>> scanned = new HashMap<>();
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(start)) {
+                    if (isSkipped(dir)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    addEntry(scanned, dir, attrs);
+                }
+                register(dir);
+                scanned.put(dir, new ArrayList<FileTreeEntry>());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (!isSkipped(file)) {
+                    addEntry(scanned, file, attrs);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                logger.warn("Can not read {}", file, exc);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                publish(dir, scanned.remove(dir));
+                visited.add(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return visited;
+    }
+
+    /**
+     * Read one directory and watch it
+     */
+    private DirectorySnapshot scanDirectory(Path dir) throws IOException {
+        // register before reading, so changes made while reading are not lost
+        register(dir);
+        return publish(dir, readDirectory(dir));
+    }
+
+    private static List<FileTreeEntry> readDirectory(Path dir) throws IOException {
+        final Map<Path, List<FileTreeEntry>> scanned = new HashMap<>();
+        scanned.put(dir, new ArrayList<FileTreeEntry>());
+        Files.walkFileTree(dir, EnumSet.noneOf(FileVisitOption.class), 1, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (!isSkipped(file)) {
+                    addEntry(scanned, file, attrs);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                logger.warn("Can not read {}", file, exc);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return scanned.get(dir);
+    }
+
+    private void processEvents(WatchKey key) throws IOException {
+        Path dir = watchedDirectories.get(key);
+        if (dir == null) {
+            key.cancel();
+            return;
+        }
+        Map<String, FileTreeEntry> changed = new HashMap<>();
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            String name = path.getFileName().toString();
+            if (isSkipped(path)) {
+                continue;
+            }
+            FileTreeEntry entry = null;
+            try {
+                BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                entry = toEntry(path, attrs);
+            } catch (NoSuchFileException ex) {
+                // removed
+            }
+            if (entry == null || !entry.isDirectory()) {
+                removeTree(path);
+            } else if (event.kind() == ENTRY_CREATE) {
+                scanTree(path);
+            }
+            changed.put(name, entry);
+        }
+        if (!key.reset()) {
+            // the directory is removed
+            watchedDirectories.remove(key);
+            removeTree(dir);
+            return;
+        }
+        DirectorySnapshot snapshot = directories.get(dir);
+        if (overflow || snapshot == null) {
+            scanDirectory(dir);
+        } else if (!changed.isEmpty()) {
+            List<FileTreeEntry> updated = new ArrayList<>(snapshot.getEntries().size() + changed.size());
+            for (FileTreeEntry entry : snapshot.getEntries()) {
+                if (!changed.containsKey(entry.getName())) {
+                    updated.add(entry);
+                }
+            }
+            for (FileTreeEntry entry : changed.values()) {
+                if (entry != null) {
+                    updated.add(entry);
+                }
+            }
+            publish(dir, updated);
+        }
+    }
+
+    private void register(Path dir) throws IOException {
+        WatchKey key = dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        watchedDirectories.put(key, dir);
+    }
+
+    private void removeTree(Path path) {
+        Iterator<Path> iterator = directories.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().startsWith(path)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private DirectorySnapshot publish(Path dir, List<FileTreeEntry> entries) {
+        DirectorySnapshot snapshot = new DirectorySnapshot(entries);
+        directories.put(dir, snapshot);
+        return snapshot;
+    }
+
+    private static void addEntry(Map<Path, List<FileTreeEntry>> scanned, Path path, BasicFileAttributes attrs) {
+        List<FileTreeEntry> entries = scanned.get(path.getParent());
+        if (entries != null) {
+            try {
+                entries.add(toEntry(path, attrs));
+            } catch (IOException ex) {
+                // broken link
+                logger.warn("Can not read {}", path, ex);
+            }
+        }
+    }
+
+    private static FileTreeEntry toEntry(Path path, BasicFileAttributes attrs) throws IOException {
+        String guid = path.toString();
+        if (attrs.isSymbolicLink()) {
+            // the entry describes the link target like the file tree always did
+            Path target = path.toRealPath();
+            attrs = Files.readAttributes(target, BasicFileAttributes.class);
+            guid = target.toString();
+        }
+        boolean directory = attrs.isDirectory();
+        return new FileTreeEntry(path.getFileName().toString(), guid, directory, Files.isHidden(path),
+                directory ? 0 : attrs.size(), attrs.lastModifiedTime().toMillis());
+    }
+
+    private static boolean isSkipped(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(".") || TEMP_DIRECTORY_NAME.equals(name);
+    }
+}
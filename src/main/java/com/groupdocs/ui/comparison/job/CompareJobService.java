@@ -0,0 +1,206 @@
+package com.groupdocs.ui.comparison.job;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.groupdocs.ui.comparison.CompareProgressListener;
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.comparison.ComparisonService;
+import com.groupdocs.ui.comparison.model.request.CompareRequest;
+import com.groupdocs.ui.comparison.model.response.CompareJobEntity;
+import com.groupdocs.ui.comparison.model.response.CompareResultResponse;
+import com.groupdocs.ui.comparison.result.ResultDirectorySweeper;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Comparison jobs running in the background with limited concurrency
+ * <p>
+ * Results of finished jobs are pinned in the result directory until the jobs expire,
+ * expired jobs are removed when jobs are submitted or queried.
+ */
+@Service
+public class CompareJobService {
+    private static final Logger logger = LoggerFactory.getLogger(CompareJobService.class);
+
+    public static final String QUEUED = "queued";
+    public static final String COMPARING = "comparing";
+    public static final String RENDERING = "rendering";
+    public static final String DONE = "done";
+    public static final String FAILED = "failed";
+
+    @Autowired
+    private ComparisonService comparisonService;
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+    @Autowired
+    private ResultDirectorySweeper resultDirectorySweeper;
+
+    private final ConcurrentMap<String, CompareJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        int threads = comparisonConfiguration.getJobThreads();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(comparisonConfiguration.getJobQueueCapacity()),
+                new ThreadFactoryBuilder().setNameFormat("compare-job-%d").setDaemon(true).build());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue comparison of documents
+     *
+     * @param compareRequest request with paths to documents to compare
+     * @return state of the queued job
+     */
+    public CompareJobEntity submit(CompareRequest compareRequest) {
+        removeExpiredJobs();
+        final CompareJob job = new CompareJob(UUID.randomUUID().toString(), compareRequest);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id);
+            throw new TotalGroupDocsException("Too many comparisons in progress, try again later", ex);
+        }
+        return job.toEntity();
+    }
+
+    /**
+     * Get job state
+     *
+     * @param jobId unique key of the job
+     * @return job state
+     */
+    public CompareJobEntity getJob(String jobId) {
+        removeExpiredJobs();
+        return findJob(jobId).toEntity();
+    }
+
+    /**
+     * Get comparison result of the finished job
+     *
+     * @param jobId unique key of the job
+     * @return comparison result
+     */
+    public CompareResultResponse getResult(String jobId) {
+        removeExpiredJobs();
+        CompareJob job = findJob(jobId);
+        if (FAILED.equals(job.status)) {
+            throw new TotalGroupDocsException(job.message);
+        }
+        if (!DONE.equals(job.status)) {
+            throw new TotalGroupDocsException("Comparison is not finished");
+        }
+        if (!new File(job.result.getGuid()).isFile()) {
+            throw new TotalGroupDocsException("Comparison result is expired");
+        }
+        return job.result;
+    }
+
+    private CompareJob findJob(String jobId) {
+        CompareJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new TotalGroupDocsException("Comparison job is not found");
+        }
+        return job;
+    }
+
+    private void removeExpiredJobs() {
+        long expired = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(comparisonConfiguration.getJobRetention());
+        Iterator<CompareJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            CompareJob job = iterator.next();
+            if (job.finished > 0 && job.finished < expired) {
+                iterator.remove();
+                job.unpin();
+            }
+        }
+    }
+
+    private class CompareJob implements Runnable, CompareProgressListener {
+        private final String id;
+        private final CompareRequest compareRequest;
+        private final AtomicInteger loadedPages = new AtomicInteger();
+        private volatile String status = QUEUED;
+        private volatile int totalPages;
+        private volatile String message;
+        private volatile CompareResultResponse result;
+        private volatile ResultDirectorySweeper.Pin pin;
+        private volatile long finished;
+
+        private CompareJob(String id, CompareRequest compareRequest) {
+            this.id = id;
+            this.compareRequest = compareRequest;
+        }
+
+        @Override
+        public void run() {
+            try {
+                CompareResultResponse compared = comparisonService.compare(compareRequest, this);
+                // the result is kept until the job expires
+                pin = resultDirectorySweeper.pin(compared.getGuid());
+                if (!new File(compared.getGuid()).isFile()) {
+                    throw new TotalGroupDocsException("Comparison result is removed");
+                }
+                result = compared;
+                status = DONE;
+            } catch (Exception ex) {
+                logger.error("Exception occurred in comparison job {}", id, ex);
+                unpin();
+                message = ex.getMessage();
+                status = FAILED;
+            } finally {
+                finished = System.currentTimeMillis();
+            }
+        }
+
+        private void unpin() {
+            ResultDirectorySweeper.Pin resultPin = pin;
+            if (resultPin != null) {
+                resultPin.close();
+            }
+        }
+
+        @Override
+        public void onComparing() {
+            status = COMPARING;
+        }
+
+        @Override
+        public void onRendering(int pageCount) {
+            loadedPages.set(0);
+            totalPages = pageCount;
+            status = RENDERING;
+        }
+
+        @Override
+        public void onPageLoaded(int pageNumber) {
+            loadedPages.incrementAndGet();
+        }
+
+        private CompareJobEntity toEntity() {
+            CompareJobEntity entity = new CompareJobEntity();
+            entity.setJobId(id);
+            entity.setStatus(status);
+            entity.setLoadedPages(loadedPages.get());
+            entity.setTotalPages(totalPages);
+            entity.setMessage(message);
+            return entity;
+        }
+    }
+}
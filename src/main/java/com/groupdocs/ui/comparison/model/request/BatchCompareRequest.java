@@ -0,0 +1,56 @@
+package com.groupdocs.ui.comparison.model.request;
+
+import com.groupdocs.ui.model.request.LoadDocumentRequest;
+
+import java.util.List;
+
+public class BatchCompareRequest {
+    /**
+     * Pairs of documents to compare
+     */
+    private List<Pair> pairs;
+
+    public List<Pair> getPairs() {
+        return pairs;
+    }
+
+    public void setPairs(List<Pair> pairs) {
+        this.pairs = pairs;
+    }
+
+    /**
+     * Source and target documents with their passwords
+     */
+    public static class Pair {
+        /**
+         * Key of the pair returned with its result, the index of the pair if empty
+         */
+        private String id;
+        private LoadDocumentRequest source;
+        private LoadDocumentRequest target;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public LoadDocumentRequest getSource() {
+            return source;
+        }
+
+        public void setSource(LoadDocumentRequest source) {
+            this.source = source;
+        }
+
+        public LoadDocumentRequest getTarget() {
+            return target;
+        }
+
+        public void setTarget(LoadDocumentRequest target) {
+            this.target = target;
+        }
+    }
+}
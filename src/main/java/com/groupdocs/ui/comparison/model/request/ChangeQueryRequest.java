@@ -0,0 +1,88 @@
+package com.groupdocs.ui.comparison.model.request;
+
+public class ChangeQueryRequest {
+    /**
+     * Unique key of results
+     */
+    private String guid;
+    /**
+     * First zero-based page number, changes of all pages if empty
+     */
+    private Integer fromPage;
+    /**
+     * Last zero-based page number, changes up to the last page if empty
+     */
+    private Integer toPage;
+    /**
+     * Type of changes, changes of all types if empty
+     */
+    private Integer type;
+    /**
+     * Action of changes, changes of all actions if empty
+     */
+    private Integer action;
+    /**
+     * Cursor returned with the previous page, the first page if empty
+     */
+    private String cursor;
+    /**
+     * Maximum count of changes in the page
+     */
+    private Integer count;
+
+    public String getGuid() {
+        return guid;
+    }
+
+    public void setGuid(String guid) {
+        this.guid = guid;
+    }
+
+    public Integer getFromPage() {
+        return fromPage;
+    }
+
+    public void setFromPage(Integer fromPage) {
+        this.fromPage = fromPage;
+    }
+
+    public Integer getToPage() {
+        return toPage;
+    }
+
+    public void setToPage(Integer toPage) {
+        this.toPage = toPage;
+    }
+
+    public Integer getType() {
+        return type;
+    }
+
+    public void setType(Integer type) {
+        this.type = type;
+    }
+
+    public Integer getAction() {
+        return action;
+    }
+
+    public void setAction(Integer action) {
+        this.action = action;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+}
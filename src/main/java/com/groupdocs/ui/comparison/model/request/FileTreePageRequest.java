@@ -0,0 +1,78 @@
+package com.groupdocs.ui.comparison.model.request;
+
+import com.groupdocs.ui.model.request.FileTreeRequest;
+
+public class FileTreePageRequest extends FileTreeRequest {
+    /**
+     * Cursor returned with the previous page, empty for the first page
+     */
+    private String cursor;
+    /**
+     * Maximum count of entries in the page
+     */
+    private Integer count;
+    /**
+     * Show only entries with names starting with the prefix, case insensitive
+     */
+    private String namePrefix;
+    /**
+     * Show only files with the extension, directories are always shown
+     */
+    private String extension;
+    /**
+     * Order of entries: name, size or modified, directories are always before files
+     */
+    private String sortBy;
+    /**
+     * Flag of descending order
+     */
+    private boolean descending;
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    public void setNamePrefix(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public void setExtension(String extension) {
+        this.extension = extension;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public void setSortBy(String sortBy) {
+        this.sortBy = sortBy;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public void setDescending(boolean descending) {
+        this.descending = descending;
+    }
+}
@@ -0,0 +1,28 @@
+package com.groupdocs.ui.comparison.model.request;
+
+public class ImportRequest {
+    /**
+     * Url of the document to import
+     */
+    private String url;
+    /**
+     * Flag of rewriting the file with the same name
+     */
+    private boolean rewrite;
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public boolean isRewrite() {
+        return rewrite;
+    }
+
+    public void setRewrite(boolean rewrite) {
+        this.rewrite = rewrite;
+    }
+}
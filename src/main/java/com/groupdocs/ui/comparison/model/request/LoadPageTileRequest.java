@@ -0,0 +1,42 @@
+package com.groupdocs.ui.comparison.model.request;
+
+import com.groupdocs.ui.model.request.LoadDocumentPageRequest;
+
+public class LoadPageTileRequest extends LoadDocumentPageRequest {
+    /**
+     * Zero-based zoom level, the last level is the most detailed
+     */
+    private int level;
+    /**
+     * Zero-based column of the tile
+     */
+    private int column;
+    /**
+     * Zero-based row of the tile
+     */
+    private int row;
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public void setColumn(int column) {
+        this.column = column;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public void setRow(int row) {
+        this.row = row;
+    }
+}
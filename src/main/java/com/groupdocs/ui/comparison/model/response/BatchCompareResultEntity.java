@@ -0,0 +1,91 @@
+package com.groupdocs.ui.comparison.model.response;
+
+/**
+ * Summary of the comparison of one pair from the batch
+ */
+public class BatchCompareResultEntity {
+    /**
+     * Key of the pair
+     */
+    private String id;
+    /**
+     * Comparison status: done or failed
+     */
+    private String status;
+    /**
+     * Error message of the failed comparison
+     */
+    private String message;
+    /**
+     * Unique key of results
+     */
+    private String guid;
+    /**
+     * Extension of compared files
+     */
+    private String extension;
+    /**
+     * Count of changes
+     */
+    private int changeCount;
+    /**
+     * Count of result pages
+     */
+    private int pageCount;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getGuid() {
+        return guid;
+    }
+
+    public void setGuid(String guid) {
+        this.guid = guid;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public void setExtension(String extension) {
+        this.extension = extension;
+    }
+
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    public void setChangeCount(int changeCount) {
+        this.changeCount = changeCount;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public void setPageCount(int pageCount) {
+        this.pageCount = pageCount;
+    }
+}
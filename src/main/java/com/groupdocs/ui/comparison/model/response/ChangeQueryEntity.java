@@ -0,0 +1,82 @@
+package com.groupdocs.ui.comparison.model.response;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page of changes of the comparison result
+ */
+public class ChangeQueryEntity {
+    /**
+     * Changes sorted by page
+     */
+    private List<ChangeInfoEntity> changes;
+    /**
+     * Cursor of the next page, null if it is the last page
+     */
+    private String nextCursor;
+    /**
+     * Count of changes matching the query, set for the first page only
+     */
+    private Integer total;
+    /**
+     * Count of all changes by zero-based page number, set for the first page only
+     */
+    private Map<Integer, Integer> pageCounts;
+    /**
+     * Count of all changes by type, set for the first page only
+     */
+    private Map<Integer, Integer> typeCounts;
+    /**
+     * Count of all changes by action, set for the first page only
+     */
+    private Map<Integer, Integer> actionCounts;
+
+    public List<ChangeInfoEntity> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ChangeInfoEntity> changes) {
+        this.changes = changes;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Integer getTotal() {
+        return total;
+    }
+
+    public void setTotal(Integer total) {
+        this.total = total;
+    }
+
+    public Map<Integer, Integer> getPageCounts() {
+        return pageCounts;
+    }
+
+    public void setPageCounts(Map<Integer, Integer> pageCounts) {
+        this.pageCounts = pageCounts;
+    }
+
+    public Map<Integer, Integer> getTypeCounts() {
+        return typeCounts;
+    }
+
+    public void setTypeCounts(Map<Integer, Integer> typeCounts) {
+        this.typeCounts = typeCounts;
+    }
+
+    public Map<Integer, Integer> getActionCounts() {
+        return actionCounts;
+    }
+
+    public void setActionCounts(Map<Integer, Integer> actionCounts) {
+        this.actionCounts = actionCounts;
+    }
+}
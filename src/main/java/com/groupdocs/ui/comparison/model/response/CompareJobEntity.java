@@ -0,0 +1,67 @@
+package com.groupdocs.ui.comparison.model.response;
+
+/**
+ * State of the comparison job
+ */
+public class CompareJobEntity {
+    /**
+     * Unique key of the job
+     */
+    private String jobId;
+    /**
+     * Job status: queued, comparing, rendering, done or failed
+     */
+    private String status;
+    /**
+     * Count of loaded result pages
+     */
+    private int loadedPages;
+    /**
+     * Count of result pages to load
+     */
+    private int totalPages;
+    /**
+     * Error message of the failed job
+     */
+    private String message;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getLoadedPages() {
+        return loadedPages;
+    }
+
+    public void setLoadedPages(int loadedPages) {
+        this.loadedPages = loadedPages;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,47 @@
+package com.groupdocs.ui.comparison.model.response;
+
+import com.groupdocs.ui.model.response.FileDescriptionEntity;
+
+import java.util.List;
+
+/**
+ * Page of the file tree
+ */
+public class FileTreePageEntity {
+    /**
+     * Entries of the page
+     */
+    private List<FileDescriptionEntity> files;
+    /**
+     * Cursor of the next page, null for the last page
+     */
+    private String nextCursor;
+    /**
+     * Count of all entries matching the filter, returned with the first page only
+     */
+    private Integer total;
+
+    public List<FileDescriptionEntity> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<FileDescriptionEntity> files) {
+        this.files = files;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Integer getTotal() {
+        return total;
+    }
+
+    public void setTotal(Integer total) {
+        this.total = total;
+    }
+}
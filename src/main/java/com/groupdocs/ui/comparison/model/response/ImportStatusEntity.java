@@ -0,0 +1,79 @@
+package com.groupdocs.ui.comparison.model.response;
+
+/**
+ * State of the document import by url
+ */
+public class ImportStatusEntity {
+    /**
+     * Unique key of the import
+     */
+    private String importId;
+    /**
+     * Import status: queued, downloading, done or failed
+     */
+    private String status;
+    /**
+     * Count of downloaded bytes
+     */
+    private long loadedBytes;
+    /**
+     * Size of the document if it is known, -1 otherwise
+     */
+    private long totalBytes;
+    /**
+     * Path to the imported document
+     */
+    private String guid;
+    /**
+     * Error message of the failed import
+     */
+    private String message;
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public void setImportId(String importId) {
+        this.importId = importId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getLoadedBytes() {
+        return loadedBytes;
+    }
+
+    public void setLoadedBytes(long loadedBytes) {
+        this.loadedBytes = loadedBytes;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public String getGuid() {
+        return guid;
+    }
+
+    public void setGuid(String guid) {
+        this.guid = guid;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,31 @@
+package com.groupdocs.ui.comparison.model.response;
+
+import java.util.List;
+
+public class MultiCompareResultResponse {
+    /**
+     * Mode of comparison, pairwise or multi
+     */
+    private String mode;
+    /**
+     * Results for every target in the order of the request for pairwise comparison,
+     * one result with changes of all targets for multi comparison
+     */
+    private List<CompareResultResponse> results;
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public List<CompareResultResponse> getResults() {
+        return results;
+    }
+
+    public void setResults(List<CompareResultResponse> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,88 @@
+package com.groupdocs.ui.comparison.model.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zoom levels of the page split into tiles
+ */
+public class PageTilesEntity {
+    /**
+     * Zero-based page number
+     */
+    private int number;
+    /**
+     * Size of square tiles, tiles in the last column and row can be smaller
+     */
+    private int tileSize;
+    /**
+     * Levels from the one tile level to the most detailed level
+     */
+    private List<Level> levels = new ArrayList<>();
+
+    public int getNumber() {
+        return number;
+    }
+
+    public void setNumber(int number) {
+        this.number = number;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public void setTileSize(int tileSize) {
+        this.tileSize = tileSize;
+    }
+
+    public List<Level> getLevels() {
+        return levels;
+    }
+
+    public void setLevels(List<Level> levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Size of the page and count of tiles at the zoom level
+     */
+    public static class Level {
+        private int width;
+        private int height;
+        private int columns;
+        private int rows;
+
+        public int getWidth() {
+            return width;
+        }
+
+        public void setWidth(int width) {
+            this.width = width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public void setHeight(int height) {
+            this.height = height;
+        }
+
+        public int getColumns() {
+            return columns;
+        }
+
+        public void setColumns(int columns) {
+            this.columns = columns;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public void setRows(int rows) {
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.groupdocs.ui.comparison.model.response;
+
+/**
+ * State of the result directory cleanup
+ */
+public class ResultDirectoryStatsEntity {
+    /**
+     * Count of results after the last cleanup
+     */
+    private long files;
+    /**
+     * Size of results in bytes after the last cleanup
+     */
+    private long bytes;
+    /**
+     * Count of results which are downloaded or rendered now
+     */
+    private int pinnedFiles;
+    /**
+     * Count of results removed since start
+     */
+    private long reclaimedFiles;
+    /**
+     * Size of results in bytes removed since start
+     */
+    private long reclaimedBytes;
+    /**
+     * Time of the last cleanup in milliseconds since epoch, 0 if there was no cleanup yet
+     */
+    private long lastSweep;
+
+    public long getFiles() {
+        return files;
+    }
+
+    public void setFiles(long files) {
+        this.files = files;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public int getPinnedFiles() {
+        return pinnedFiles;
+    }
+
+    public void setPinnedFiles(int pinnedFiles) {
+        this.pinnedFiles = pinnedFiles;
+    }
+
+    public long getReclaimedFiles() {
+        return reclaimedFiles;
+    }
+
+    public void setReclaimedFiles(long reclaimedFiles) {
+        this.reclaimedFiles = reclaimedFiles;
+    }
+
+    public long getReclaimedBytes() {
+        return reclaimedBytes;
+    }
+
+    public void setReclaimedBytes(long reclaimedBytes) {
+        this.reclaimedBytes = reclaimedBytes;
+    }
+
+    public long getLastSweep() {
+        return lastSweep;
+    }
+
+    public void setLastSweep(long lastSweep) {
+        this.lastSweep = lastSweep;
+    }
+}
@@ -0,0 +1,143 @@
+package com.groupdocs.ui.comparison.render;
+
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+
+/**
+ * Size and format of rendered page images
+ * <p>
+ * Images are scaled to the target width or by the scale with the aspect ratio of the page,
+ * they are not larger than the page unless the maximum scale allows it. Thumbnails are rendered to the configured width
+ * and are cached apart from page images.
+ */
+public class PageImageOptions {
+    public static final String PNG = "png";
+    public static final String JPEG = "jpg";
+    /**
+     * Page images in native size and PNG format
+     */
+    public static final PageImageOptions DEFAULT = new PageImageOptions(null, null, PNG, 0, false);
+
+    private final Integer width;
+    private final Double scale;
+    private final String format;
+    private final int quality;
+    private final boolean thumbnail;
+    private final double maxScale;
+
+    /**
+     * @param width     target width, null to use the scale
+     * @param scale     scale of the page, null for native size
+     * @param format    png or jpg
+     * @param quality   JPEG quality from 1 to 100, ignored for PNG
+     * @param thumbnail image is a thumbnail
+     */
+    public PageImageOptions(Integer width, Double scale, String format, int quality, boolean thumbnail) {
+        this(width, scale, format, quality, thumbnail, 1.0);
+    }
+
+    /**
+     * @param width     target width, null to use the scale
+     * @param scale     scale of the page, null for native size
+     * @param format    png or jpg
+     * @param quality   JPEG quality from 1 to 100, ignored for PNG
+     * @param thumbnail image is a thumbnail
+     * @param maxScale  maximum scale of the page
+     */
+    public PageImageOptions(Integer width, Double scale, String format, int quality, boolean thumbnail, double maxScale) {
+        if (width != null && width <= 0) {
+            throw new TotalGroupDocsException("Image width must be positive");
+        }
+        if (scale != null && !(scale > 0)) {
+            throw new TotalGroupDocsException("Image scale must be positive");
+        }
+        if (!PNG.equals(format) && !JPEG.equals(format)) {
+            throw new TotalGroupDocsException("Image format is not supported: " + format);
+        }
+        if (JPEG.equals(format) && (quality < 1 || quality > 100)) {
+            throw new TotalGroupDocsException("JPEG quality must be from 1 to 100");
+        }
+        this.width = width;
+        this.scale = scale;
+        this.format = format;
+        this.quality = JPEG.equals(format) ? quality : 0;
+        this.thumbnail = thumbnail;
+        this.maxScale = maxScale;
+    }
+
+    /**
+     * Get image format by the file extension or the format name
+     *
+     * @param name png, jpg or jpeg, case insensitive
+     * @return png or jpg, null if the format is not supported
+     */
+    public static String getFormat(String name) {
+        if (name == null) {
+            return null;
+        }
+        switch (name.toLowerCase()) {
+            case "png":
+                return PNG;
+            case "jpg":
+            case "jpeg":
+                return JPEG;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param pageWidth  width of the page
+     * @param pageHeight height of the page
+     * @return width of the image
+     */
+    public int getWidth(int pageWidth, int pageHeight) {
+        if (width != null) {
+            return (int) Math.min(width, Math.round(pageWidth * maxScale));
+        }
+        if (scale != null) {
+            return Math.max(1, (int) Math.round(pageWidth * Math.min(scale, maxScale)));
+        }
+        return pageWidth;
+    }
+
+    /**
+     * @param pageWidth  width of the page
+     * @param pageHeight height of the page
+     * @return height of the image
+     */
+    public int getHeight(int pageWidth, int pageHeight) {
+        int imageWidth = getWidth(pageWidth, pageHeight);
+        if (imageWidth == pageWidth) {
+            return pageHeight;
+        }
+        return Math.max(1, (int) Math.round((double) pageHeight * imageWidth / pageWidth));
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public int getQuality() {
+        return quality;
+    }
+
+    public boolean isThumbnail() {
+        return thumbnail;
+    }
+
+    public boolean isJpeg() {
+        return JPEG.equals(format);
+    }
+
+    /**
+     * Name of the format and the quality, images with different names are cached separately
+     */
+    public String getVariant() {
+        return isJpeg() ? "q" + quality + "." + format : format;
+    }
+
+    @Override
+    public String toString() {
+        return (thumbnail ? "thumbnail" : "width=" + width + ", scale=" + scale) + ", maxScale=" + maxScale + ", " + getVariant();
+    }
+}
@@ -0,0 +1,198 @@
+package com.groupdocs.ui.comparison.render;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.comparison.ComparisonService;
+import com.groupdocs.ui.model.request.LoadDocumentPageRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background rendering of pages which follow the requested page
+ * <p>
+ * Pages are rendered to the page images cache one by one by a single low priority thread.
+ * Every request of a page starts a new generation of prefetching of its document, so pages
+ * of the previous position are not rendered after the client jumps elsewhere. Prefetching
+ * waits while pages are rendered for clients, and skips pages of documents which are used
+ * by other requests.
+ */
+@Component
+public class PagePrefetcher {
+    private static final Logger logger = LoggerFactory.getLogger(PagePrefetcher.class);
+
+    private static final int QUEUE_CAPACITY = 100;
+    /**
+     * Marks the prefetch thread, its renders are not foreground and do not start prefetching
+     */
+    private static final ThreadLocal<Boolean> prefetching = new ThreadLocal<>();
+
+    /**
+     * Foreground render, prefetching is resumed when all foreground renders are closed
+     */
+    public interface Foreground extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Foreground NONE = new Foreground() {
+        @Override
+        public void close() {
+        }
+    };
+
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+    @Autowired
+    private ComparisonService comparisonService;
+
+    private ThreadPoolExecutor executor;
+    /**
+     * Last generation of prefetching by document and image variant
+     */
+    private final Cache<String, AtomicLong> generations = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .build();
+    private final Object foregroundLock = new Object();
+    private int foregroundRenders;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(QUEUE_CAPACITY),
+                new ThreadFactoryBuilder().setNameFormat("page-prefetch-%d").setDaemon(true).setPriority(Thread.MIN_PRIORITY).build(),
+                new ThreadPoolExecutor.DiscardOldestPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Render pages after the requested page in background
+     *
+     * @param loadDocumentPageRequest requested page, following pages are rendered in the same size and format
+     * @param pageCount               count of pages of the document
+     * @param variant                 size and format of the image, prefetching of other variants is not cancelled
+     */
+    public void prefetch(LoadDocumentPageRequest loadDocumentPageRequest, int pageCount, String variant) {
+        final int window = comparisonConfiguration.getPrefetchPages() == null ? 0 : comparisonConfiguration.getPrefetchPages();
+        if (window <= 0 || isPrefetching()) {
+            return;
+        }
+        final AtomicLong generation;
+        try {
+            generation = generations.get(loadDocumentPageRequest.getGuid() + "|" + variant, new Callable<AtomicLong>() {
+                @Override
+                public AtomicLong call() {
+                    return new AtomicLong();
+                }
+            });
+        } catch (ExecutionException ex) {
+            return;
+        }
+        // the running prefetch of the document stops before its next page
+        final long current = generation.incrementAndGet();
+        final int firstPage = loadDocumentPageRequest.getPage() + 1;
+        final int lastPage = Math.min(pageCount, loadDocumentPageRequest.getPage() + window);
+        if (firstPage > lastPage) {
+            return;
+        }
+        final LoadDocumentPageRequest prefetchRequest = copy(loadDocumentPageRequest);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                prefetching.set(Boolean.TRUE);
+                try {
+                    for (int page = firstPage; page <= lastPage && generation.get() == current; page++) {
+                        if (!awaitForeground(generation, current)) {
+                            return;
+                        }
+                        prefetchRequest.setPage(page);
+                        comparisonService.loadDocumentPageImage(prefetchRequest, false);
+                    }
+                } catch (Exception ex) {
+                    logger.debug("Prefetching of {} is stopped", prefetchRequest.getGuid(), ex);
+                } finally {
+                    prefetching.remove();
+                }
+            }
+        });
+    }
+
+    /**
+     * Mark the render for a client, prefetching waits until it is closed
+     *
+     * @return foreground render to close when pages are rendered
+     */
+    public Foreground foreground() {
+        if (isPrefetching()) {
+            return NONE;
+        }
+        synchronized (foregroundLock) {
+            foregroundRenders++;
+        }
+        return new Foreground() {
+            private boolean closed;
+
+            @Override
+            public void close() {
+                synchronized (foregroundLock) {
+                    if (!closed) {
+                        closed = true;
+                        foregroundRenders--;
+                        foregroundLock.notifyAll();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * @return true if the current thread renders pages in background
+     */
+    public static boolean isPrefetching() {
+        return prefetching.get() != null;
+    }
+
+    /**
+     * Wait until there are no foreground renders
+     *
+     * @return false if the generation is outdated or the thread is interrupted
+     */
+    private boolean awaitForeground(AtomicLong generation, long current) {
+        synchronized (foregroundLock) {
+            while (foregroundRenders > 0 && generation.get() == current) {
+                try {
+                    foregroundLock.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return generation.get() == current;
+    }
+
+    private static LoadDocumentPageRequest copy(LoadDocumentPageRequest loadDocumentPageRequest) {
+        LoadDocumentPageRequest copy = new LoadDocumentPageRequest();
+        copy.setGuid(loadDocumentPageRequest.getGuid());
+        copy.setPassword(loadDocumentPageRequest.getPassword());
+        copy.setPage(loadDocumentPageRequest.getPage());
+        copy.setWidth(loadDocumentPageRequest.getWidth());
+        copy.setScale(loadDocumentPageRequest.getScale());
+        copy.setFormat(loadDocumentPageRequest.getFormat());
+        copy.setQuality(loadDocumentPageRequest.getQuality());
+        copy.setThumbnail(loadDocumentPageRequest.isThumbnail());
+        return copy;
+    }
+}
@@ -0,0 +1,344 @@
+package com.groupdocs.ui.comparison.render;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.groupdocs.comparison.Comparer;
+import com.groupdocs.comparison.common.delegates.Delegates;
+import com.groupdocs.comparison.options.PreviewOptions;
+import com.groupdocs.comparison.options.enums.PreviewFormats;
+import com.groupdocs.comparison.options.load.LoadOptions;
+import com.groupdocs.ui.comparison.CompareProgressListener;
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.comparison.cache.DocumentPages;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Renderer of document pages
+ * <p>
+ * Large page ranges are split between threads of the render pool, every thread renders its part
+ * from its own copy of the document. The count of threads is limited by the free heap, so rendering
+ * of big pages does not exhaust the memory.
+ */
+@Component
+public class PageRenderer {
+    private static final Logger logger = LoggerFactory.getLogger(PageRenderer.class);
+
+    /**
+     * Minimal count of pages to render in a separate thread, opening of the document copy
+     * is not worth it for fewer pages
+     */
+    private static final int MIN_PAGES_PER_THREAD = 4;
+    /**
+     * Part of the free heap which can be used for rendering
+     */
+    private static final double HEAP_SHARE = 0.5;
+    /**
+     * Estimated ratio between the memory of the opened document and its file size
+     */
+    private static final int DOCUMENT_MEMORY_FACTOR = 4;
+
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+
+    private ThreadPoolExecutor executor;
+    private int threads;
+
+    @PostConstruct
+    public void init() {
+        Integer renderThreads = comparisonConfiguration.getRenderThreads();
+        threads = renderThreads == null || renderThreads <= 0 ? Runtime.getRuntime().availableProcessors() : renderThreads;
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("page-render-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Render pages of the document, large page ranges are rendered in parallel
+     *
+     * @param documentGuid  path to document
+     * @param password      document password
+     * @param comparer      comparer with opened document, used by the calling thread
+     * @param documentPages sizes of document pages
+     * @param pageNumbers   zero-based numbers of pages to render
+     * @param options       size and format of images
+     * @param listener      listener notified about every rendered page, it is called from different threads
+     * @return image bytes by zero-based page number in the order of pages
+     */
+    public Map<Integer, byte[]> render(final String documentGuid, final String password, Comparer comparer,
+                                       final DocumentPages documentPages, List<Integer> pageNumbers,
+                                       final PageImageOptions options, final CompareProgressListener listener) {
+        final int parallelism = getParallelism(documentGuid, documentPages, pageNumbers, options);
+        Map<Integer, byte[]> renderedPages = new TreeMap<>();
+        if (parallelism <= 1) {
+            renderedPages.putAll(renderPages(comparer, documentPages, pageNumbers, options, listener));
+            return renderedPages;
+        }
+
+        // contiguous page ranges, the first range is rendered by the calling thread
+        List<List<Integer>> ranges = new ArrayList<>();
+        final int rangeSize = (pageNumbers.size() + parallelism - 1) / parallelism;
+        for (int i = 0; i < pageNumbers.size(); i += rangeSize) {
+            ranges.add(pageNumbers.subList(i, Math.min(i + rangeSize, pageNumbers.size())));
+        }
+        List<FutureTask<Map<Integer, byte[]>>> tasks = new ArrayList<>();
+        for (final List<Integer> range : ranges.subList(1, ranges.size())) {
+            FutureTask<Map<Integer, byte[]>> task = new FutureTask<>(new Callable<Map<Integer, byte[]>>() {
+                @Override
+                public Map<Integer, byte[]> call() {
+                    LoadOptions loadOptions = new LoadOptions();
+                    loadOptions.setPassword(password);
+                    try (Comparer rangeComparer = new Comparer(documentGuid, loadOptions)) {
+                        return renderPages(rangeComparer, documentPages, range, options, listener);
+                    }
+                }
+            });
+            tasks.add(task);
+            executor.execute(task);
+        }
+
+        try {
+            renderedPages.putAll(renderPages(comparer, documentPages, ranges.get(0), options, listener));
+            for (FutureTask<Map<Integer, byte[]>> task : tasks) {
+                // a range which is not started by the pool yet is rendered by the calling thread
+                task.run();
+                renderedPages.putAll(task.get());
+            }
+            return renderedPages;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            throw new TotalGroupDocsException(cause.getMessage(), cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TotalGroupDocsException(ex.getMessage(), ex);
+        } finally {
+            for (FutureTask<Map<Integer, byte[]>> task : tasks) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Get count of threads to render pages
+     */
+    private int getParallelism(String documentGuid, DocumentPages documentPages, List<Integer> pageNumbers, PageImageOptions options) {
+        int parallelism = Math.min(threads, pageNumbers.size() / MIN_PAGES_PER_THREAD);
+        if (parallelism <= 1) {
+            return 1;
+        }
+        // memory of the page bitmap and its encoded image
+        long pageMemory = 0;
+        for (Integer pageNumber : pageNumbers) {
+            final int pageWidth = documentPages.getWidth(pageNumber);
+            final int pageHeight = documentPages.getHeight(pageNumber);
+            pageMemory = Math.max(pageMemory, 2L * 4 * options.getWidth(pageWidth, pageHeight) * options.getHeight(pageWidth, pageHeight));
+        }
+        long threadMemory = pageMemory + DOCUMENT_MEMORY_FACTOR * new File(documentGuid).length();
+        Runtime runtime = Runtime.getRuntime();
+        long freeMemory = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        long memoryLimit = (long) (freeMemory * HEAP_SHARE) / Math.max(1, threadMemory);
+        if (memoryLimit < parallelism) {
+            logger.debug("Page rendering threads are limited to {} by free memory", memoryLimit);
+        }
+        return (int) Math.max(1, Math.min(parallelism, memoryLimit));
+    }
+
+    /**
+     * Render pages of the opened document to images
+     * <p>
+     * Preview options take one width and height for all pages, so pages are grouped by image size
+     * and every group is rendered with a single generatePreview call. Pages are rendered in the
+     * image size, so small images do not cost the rendering of the whole page. JPEG images are
+     * encoded from rendered PNG images, as the preview has no quality setting.
+     *
+     * @param comparer      comparer with opened source document
+     * @param documentPages sizes of document pages
+     * @param pageNumbers   zero-based numbers of pages to render
+     * @param options       size and format of images
+     * @param listener      listener notified about every rendered page
+     * @return image bytes by zero-based page number
+     */
+    public static Map<Integer, byte[]> renderPages(Comparer comparer, DocumentPages documentPages, List<Integer> pageNumbers,
+                                                   PageImageOptions options, final CompareProgressListener listener) {
+        Map<Integer, byte[]> renderedPages = new HashMap<>();
+        if (pageNumbers.isEmpty()) {
+            return renderedPages;
+        }
+
+        Map<String, List<Integer>> pagesBySize = new LinkedHashMap<>();
+        for (Integer pageNumber : pageNumbers) {
+            final int pageWidth = documentPages.getWidth(pageNumber);
+            final int pageHeight = documentPages.getHeight(pageNumber);
+            String size = options.getWidth(pageWidth, pageHeight) + "x" + options.getHeight(pageWidth, pageHeight);
+            List<Integer> pages = pagesBySize.get(size);
+            if (pages == null) {
+                pages = new ArrayList<>();
+                pagesBySize.put(size, pages);
+            }
+            pages.add(pageNumber);
+        }
+
+        // page numbers in the delegate are one-based
+        final Map<Integer, ByteArrayOutputStream> pageStreams = new HashMap<>();
+        for (List<Integer> pages : pagesBySize.values()) {
+            // the stream of the next page is requested when the previous page is rendered
+            final int[] renderingPage = new int[]{-1};
+            PreviewOptions previewOptions = new PreviewOptions(new Delegates.CreatePageStream() {
+                @Override
+                public OutputStream invoke(int pageNumber) {
+                    if (renderingPage[0] >= 0) {
+                        listener.onPageLoaded(renderingPage[0]);
+                    }
+                    renderingPage[0] = pageNumber - 1;
+                    ByteArrayOutputStream pageStream = new ByteArrayOutputStream();
+                    pageStreams.put(pageNumber - 1, pageStream);
+                    return pageStream;
+                }
+            });
+
+            int[] previewPageNumbers = new int[pages.size()];
+            for (int i = 0; i < pages.size(); i++) {
+                previewPageNumbers[i] = pages.get(i) + 1;
+            }
+            previewOptions.setPreviewFormat(PreviewFormats.PNG);
+            previewOptions.setPageNumbers(previewPageNumbers);
+            final int pageWidth = documentPages.getWidth(pages.get(0));
+            final int pageHeight = documentPages.getHeight(pages.get(0));
+            previewOptions.setHeight(options.getHeight(pageWidth, pageHeight));
+            previewOptions.setWidth(options.getWidth(pageWidth, pageHeight));
+            comparer.getSource().generatePreview(previewOptions);
+            if (renderingPage[0] >= 0) {
+                listener.onPageLoaded(renderingPage[0]);
+            }
+        }
+
+        for (Map.Entry<Integer, ByteArrayOutputStream> entry : pageStreams.entrySet()) {
+            byte[] image = entry.getValue().toByteArray();
+            renderedPages.put(entry.getKey(), options.isJpeg() ? toJpeg(image, options.getQuality()) : image);
+        }
+        return renderedPages;
+    }
+
+    /**
+     * Render the page of the opened document to the PNG file, the image is not kept in memory
+     *
+     * @param comparer      comparer with opened source document
+     * @param documentPages sizes of document pages
+     * @param pageNumber    zero-based number of the page
+     * @param options       size of the image, the format is ignored
+     * @param file          file to write the image to
+     */
+    public static void renderPage(Comparer comparer, DocumentPages documentPages, int pageNumber,
+                                  PageImageOptions options, final File file) throws IOException {
+        final OutputStream[] pageStream = new OutputStream[1];
+        PreviewOptions previewOptions = new PreviewOptions(new Delegates.CreatePageStream() {
+            @Override
+            public OutputStream invoke(int previewPageNumber) {
+                try {
+                    pageStream[0] = new BufferedOutputStream(new FileOutputStream(file));
+                } catch (FileNotFoundException ex) {
+                    throw new TotalGroupDocsException(ex.getMessage(), ex);
+                }
+                return pageStream[0];
+            }
+        });
+        try {
+            final int pageWidth = documentPages.getWidth(pageNumber);
+            final int pageHeight = documentPages.getHeight(pageNumber);
+            previewOptions.setPreviewFormat(PreviewFormats.PNG);
+            previewOptions.setPageNumbers(new int[]{pageNumber + 1});
+            previewOptions.setHeight(options.getHeight(pageWidth, pageHeight));
+            previewOptions.setWidth(options.getWidth(pageWidth, pageHeight));
+            comparer.getSource().generatePreview(previewOptions);
+        } finally {
+            if (pageStream[0] != null) {
+                pageStream[0].close();
+            }
+        }
+        if (pageStream[0] == null) {
+            throw new TotalGroupDocsException("Page " + (pageNumber + 1) + " is not rendered");
+        }
+    }
+
+    /**
+     * Encode PNG image as JPEG
+     *
+     * @param png     PNG image
+     * @param quality JPEG quality from 1 to 100
+     * @return JPEG image
+     */
+    static byte[] toJpeg(byte[] png, int quality) {
+        BufferedImage image;
+        try {
+            image = ImageIO.read(new ByteArrayInputStream(png));
+        } catch (IOException ex) {
+            throw new TotalGroupDocsException("Exception occurred while encoding page image", ex);
+        }
+        if (image == null) {
+            throw new TotalGroupDocsException("Rendered page is not an image");
+        }
+        return encode(image, PageImageOptions.JPEG, quality);
+    }
+
+    /**
+     * Encode image, transparent areas of JPEG images are white
+     *
+     * @param image   image
+     * @param format  png or jpg
+     * @param quality JPEG quality from 1 to 100
+     * @return encoded image
+     */
+    static byte[] encode(BufferedImage image, String format, int quality) {
+        try {
+            if (PageImageOptions.PNG.equals(format)) {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                ImageIO.write(image, "png", outputStream);
+                return outputStream.toByteArray();
+            }
+            BufferedImage rgbImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = rgbImage.createGraphics();
+            try {
+                graphics.drawImage(image, 0, 0, Color.WHITE, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality / 100f);
+                writer.setOutput(imageOutputStream);
+                writer.write(null, new IIOImage(rgbImage, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            return outputStream.toByteArray();
+        } catch (IOException ex) {
+            throw new TotalGroupDocsException("Exception occurred while encoding page image", ex);
+        }
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.groupdocs.ui.comparison.render;
+
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.*;
+
+/**
+ * Pyramid of square tiles of one page
+ * <p>
+ * The most detailed level is the page scaled by the maximum scale, every previous level
+ * is half of the next one and the level 0 fits in one tile. Tiles of a level are cut from
+ * its rendered image by bands of one tile row, so only one row of tiles is decoded in memory
+ * however large the page is.
+ */
+public class PageTiles {
+
+    /**
+     * Receives tiles of the level one by one
+     */
+    public interface TileWriter {
+        void write(int column, int row, byte[] tile) throws IOException;
+    }
+
+    private final int pageWidth;
+    private final int pageHeight;
+    private final int tileSize;
+    private final double maxScale;
+    private final int levelCount;
+
+    /**
+     * @param pageWidth  width of the page
+     * @param pageHeight height of the page
+     * @param tileSize   size of tiles
+     * @param maxScale   scale of the page at the most detailed level
+     */
+    public PageTiles(int pageWidth, int pageHeight, int tileSize, double maxScale) {
+        if (tileSize <= 0) {
+            throw new TotalGroupDocsException("Tile size must be positive");
+        }
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.tileSize = tileSize;
+        this.maxScale = maxScale;
+        long size = Math.round(Math.max(pageWidth, pageHeight) * maxScale);
+        int levels = 1;
+        while (size > tileSize) {
+            size = (size + 1) / 2;
+            levels++;
+        }
+        this.levelCount = levels;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Name of the tile size and the scale, levels and tiles of pyramids with different names differ
+     */
+    public String getPyramidName() {
+        return tileSize + "_" + maxScale;
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    /**
+     * Size of the rendered page of the level
+     *
+     * @param level zero-based level, the last level is the most detailed
+     * @return PNG image options of the level
+     */
+    public PageImageOptions getLevelOptions(int level) {
+        checkLevel(level);
+        double scale = maxScale / (1L << (levelCount - 1 - level));
+        return new PageImageOptions(null, scale, PageImageOptions.PNG, 0, false, maxScale);
+    }
+
+    public int getWidth(int level) {
+        return getLevelOptions(level).getWidth(pageWidth, pageHeight);
+    }
+
+    public int getHeight(int level) {
+        return getLevelOptions(level).getHeight(pageWidth, pageHeight);
+    }
+
+    public int getColumns(int level) {
+        return (getWidth(level) + tileSize - 1) / tileSize;
+    }
+
+    public int getRows(int level) {
+        return (getHeight(level) + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * Check that the tile exists
+     *
+     * @param level  zero-based level
+     * @param column zero-based column
+     * @param row    zero-based row
+     */
+    public void checkTile(int level, int column, int row) {
+        checkLevel(level);
+        if (column < 0 || column >= getColumns(level) || row < 0 || row >= getRows(level)) {
+            throw new TotalGroupDocsException("Tile " + column + "_" + row + " is out of the level " + level);
+        }
+    }
+
+    /**
+     * Cut the rendered level to tiles, tiles in the last column and row can be smaller
+     * <p>
+     * The image is decoded in one pass from top to bottom, tiles of every row are written
+     * as soon as the band of the row is decoded.
+     *
+     * @param png     rendered page of the level
+     * @param format  png or jpg
+     * @param quality JPEG quality from 1 to 100
+     * @param writer  receives encoded tiles
+     */
+    public void slice(File png, String format, int quality, TileWriter writer) throws IOException {
+        try (PngRowReader reader = new PngRowReader(new BufferedInputStream(new FileInputStream(png)))) {
+            final int width = reader.getWidth();
+            final int height = reader.getHeight();
+            if (reader.isInterlaced()) {
+                // rows of interlaced images are spread over the file, the image is decoded at once
+                BufferedImage image = ImageIO.read(png);
+                if (image == null) {
+                    throw new TotalGroupDocsException("Rendered page is not an image");
+                }
+                for (int y = 0; y < height; y += tileSize) {
+                    writeBand(image.getSubimage(0, y, width, Math.min(tileSize, height - y)), y / tileSize, format, quality, writer);
+                }
+                return;
+            }
+            int[] row = new int[width];
+            for (int y = 0; y < height; y += tileSize) {
+                BufferedImage band = new BufferedImage(width, Math.min(tileSize, height - y), BufferedImage.TYPE_INT_ARGB);
+                for (int bandRow = 0; bandRow < band.getHeight(); bandRow++) {
+                    reader.readRow(row);
+                    band.setRGB(0, bandRow, width, 1, row, 0, width);
+                }
+                writeBand(band, y / tileSize, format, quality, writer);
+            }
+        }
+    }
+
+    private void writeBand(BufferedImage band, int row, String format, int quality, TileWriter writer) throws IOException {
+        for (int x = 0; x < band.getWidth(); x += tileSize) {
+            BufferedImage tile = band.getSubimage(x, 0, Math.min(tileSize, band.getWidth() - x), band.getHeight());
+            writer.write(x / tileSize, row, PageRenderer.encode(tile, format, quality));
+        }
+    }
+
+    private void checkLevel(int level) {
+        if (level < 0 || level >= levelCount) {
+            throw new TotalGroupDocsException("Tile level must be from 0 to " + (levelCount - 1));
+        }
+    }
+}
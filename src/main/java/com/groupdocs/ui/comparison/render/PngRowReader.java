@@ -0,0 +1,334 @@
+package com.groupdocs.ui.comparison.render;
+
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reader of PNG images row by row from top to bottom
+ * <p>
+ * Only the current and the previous rows are kept in memory, so images of any height are decoded
+ * in one pass with memory of one row. Interlaced images are not supported, their rows are not stored in order.
+ */
+class PngRowReader implements Closeable {
+    private static final byte[] SIGNATURE = {(byte) 137, 'P', 'N', 'G', '\r', '\n', 26, '\n'};
+
+    private static final int GRAY = 0;
+    private static final int RGB = 2;
+    private static final int PALETTE = 3;
+    private static final int GRAY_ALPHA = 4;
+    private static final int RGB_ALPHA = 6;
+
+    private final DataInputStream inputStream;
+    private final int width;
+    private final int height;
+    private final int bitDepth;
+    private final int colorType;
+    private final boolean interlaced;
+    private int[] palette;
+    /**
+     * Transparent color of gray and RGB images in samples of the bit depth, null if there is no transparent color
+     */
+    private int[] transparentColor;
+    private InputStream pixels;
+    private byte[] row;
+    private byte[] previousRow;
+    private int bytesPerPixel;
+    private int rowIndex;
+
+    /**
+     * Read the header of the image
+     *
+     * @param inputStream PNG image, it is closed with the reader
+     */
+    PngRowReader(InputStream inputStream) throws IOException {
+        this.inputStream = new DataInputStream(inputStream);
+        byte[] signature = new byte[SIGNATURE.length];
+        this.inputStream.readFully(signature);
+        if (!Arrays.equals(SIGNATURE, signature)) {
+            throw new TotalGroupDocsException("Rendered page is not a PNG image");
+        }
+        int length = this.inputStream.readInt();
+        if (!"IHDR".equals(readType()) || length != 13) {
+            throw new TotalGroupDocsException("PNG image has no header");
+        }
+        width = this.inputStream.readInt();
+        height = this.inputStream.readInt();
+        bitDepth = this.inputStream.readUnsignedByte();
+        colorType = this.inputStream.readUnsignedByte();
+        this.inputStream.readUnsignedByte();
+        this.inputStream.readUnsignedByte();
+        interlaced = this.inputStream.readUnsignedByte() != 0;
+        this.inputStream.readInt();
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    boolean isInterlaced() {
+        return interlaced;
+    }
+
+    /**
+     * Read the next row
+     *
+     * @param argb receives pixels of the row in the default RGB color model
+     */
+    void readRow(int[] argb) throws IOException {
+        if (interlaced) {
+            throw new TotalGroupDocsException("Interlaced PNG images are not supported");
+        }
+        if (pixels == null) {
+            start();
+        }
+        if (rowIndex >= height) {
+            throw new EOFException("All rows of the image are read");
+        }
+        int filter = pixels.read();
+        if (filter < 0) {
+            throw new EOFException("PNG image data is truncated");
+        }
+        readFully(pixels, row);
+        unfilter(filter);
+        for (int x = 0; x < width; x++) {
+            argb[x] = getPixel(x);
+        }
+        byte[] current = row;
+        row = previousRow;
+        previousRow = current;
+        rowIndex++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    /**
+     * Read chunks before the image data and start inflating of the data
+     */
+    private void start() throws IOException {
+        while (true) {
+            int length = inputStream.readInt();
+            String type = readType();
+            if ("IDAT".equals(type)) {
+                pixels = new InflaterInputStream(new DataStream(length));
+                break;
+            }
+            byte[] data = new byte[length];
+            inputStream.readFully(data);
+            inputStream.readInt();
+            if ("PLTE".equals(type)) {
+                palette = new int[length / 3];
+                for (int i = 0; i < palette.length; i++) {
+                    palette[i] = 0xFF000000 | (data[i * 3] & 0xFF) << 16 | (data[i * 3 + 1] & 0xFF) << 8 | (data[i * 3 + 2] & 0xFF);
+                }
+            } else if ("tRNS".equals(type)) {
+                readTransparency(data);
+            } else if ("IEND".equals(type)) {
+                throw new TotalGroupDocsException("PNG image has no data");
+            }
+        }
+        int samples;
+        switch (colorType) {
+            case GRAY:
+            case PALETTE:
+                samples = 1;
+                break;
+            case GRAY_ALPHA:
+                samples = 2;
+                break;
+            case RGB:
+                samples = 3;
+                break;
+            case RGB_ALPHA:
+                samples = 4;
+                break;
+            default:
+                throw new TotalGroupDocsException("PNG color type is not supported: " + colorType);
+        }
+        if (colorType == PALETTE && palette == null) {
+            throw new TotalGroupDocsException("PNG image has no palette");
+        }
+        bytesPerPixel = Math.max(1, samples * bitDepth / 8);
+        int rowLength = (int) (((long) width * samples * bitDepth + 7) / 8);
+        row = new byte[rowLength];
+        previousRow = new byte[rowLength];
+    }
+
+    private void readTransparency(byte[] data) {
+        if (colorType == PALETTE && palette != null) {
+            for (int i = 0; i < data.length && i < palette.length; i++) {
+                palette[i] = (data[i] & 0xFF) << 24 | (palette[i] & 0xFFFFFF);
+            }
+        } else if (colorType == GRAY && data.length >= 2) {
+            transparentColor = new int[]{readUnsignedShort(data, 0)};
+        } else if (colorType == RGB && data.length >= 6) {
+            transparentColor = new int[]{readUnsignedShort(data, 0), readUnsignedShort(data, 2), readUnsignedShort(data, 4)};
+        }
+    }
+
+    private void unfilter(int filter) {
+        for (int i = 0; i < row.length; i++) {
+            int left = i >= bytesPerPixel ? row[i - bytesPerPixel] & 0xFF : 0;
+            int up = previousRow[i] & 0xFF;
+            int upLeft = i >= bytesPerPixel ? previousRow[i - bytesPerPixel] & 0xFF : 0;
+            int value = row[i] & 0xFF;
+            switch (filter) {
+                case 0:
+                    break;
+                case 1:
+                    value += left;
+                    break;
+                case 2:
+                    value += up;
+                    break;
+                case 3:
+                    value += (left + up) / 2;
+                    break;
+                case 4:
+                    value += paeth(left, up, upLeft);
+                    break;
+                default:
+                    throw new TotalGroupDocsException("PNG filter is not supported: " + filter);
+            }
+            row[i] = (byte) value;
+        }
+    }
+
+    private static int paeth(int left, int up, int upLeft) {
+        int estimate = left + up - upLeft;
+        int leftDistance = Math.abs(estimate - left);
+        int upDistance = Math.abs(estimate - up);
+        int upLeftDistance = Math.abs(estimate - upLeft);
+        if (leftDistance <= upDistance && leftDistance <= upLeftDistance) {
+            return left;
+        }
+        return upDistance <= upLeftDistance ? up : upLeft;
+    }
+
+    private int getPixel(int x) {
+        switch (colorType) {
+            case GRAY: {
+                int sample = getSample(x, 0, 1);
+                int gray = to8Bit(sample);
+                int alpha = transparentColor != null && transparentColor[0] == sample ? 0 : 0xFF;
+                return alpha << 24 | gray << 16 | gray << 8 | gray;
+            }
+            case PALETTE: {
+                int index = getSample(x, 0, 1);
+                return index < palette.length ? palette[index] : 0xFF000000;
+            }
+            case GRAY_ALPHA: {
+                int gray = to8Bit(getSample(x, 0, 2));
+                return to8Bit(getSample(x, 1, 2)) << 24 | gray << 16 | gray << 8 | gray;
+            }
+            case RGB: {
+                int red = getSample(x, 0, 3);
+                int green = getSample(x, 1, 3);
+                int blue = getSample(x, 2, 3);
+                boolean transparent = transparentColor != null && transparentColor[0] == red
+                        && transparentColor[1] == green && transparentColor[2] == blue;
+                return (transparent ? 0 : 0xFF000000) | to8Bit(red) << 16 | to8Bit(green) << 8 | to8Bit(blue);
+            }
+            default:
+                return to8Bit(getSample(x, 3, 4)) << 24 | to8Bit(getSample(x, 0, 4)) << 16
+                        | to8Bit(getSample(x, 1, 4)) << 8 | to8Bit(getSample(x, 2, 4));
+        }
+    }
+
+    /**
+     * Get the sample of the pixel in the bit depth of the image
+     */
+    private int getSample(int x, int sample, int samples) {
+        if (bitDepth == 8) {
+            return row[x * samples + sample] & 0xFF;
+        }
+        if (bitDepth == 16) {
+            return readUnsignedShort(row, (x * samples + sample) * 2);
+        }
+        // samples of lower depths are packed from the high bits, only gray and palette images have them
+        int bit = x * bitDepth;
+        int shift = 8 - bitDepth - bit % 8;
+        return (row[bit / 8] >> shift) & ((1 << bitDepth) - 1);
+    }
+
+    private int to8Bit(int sample) {
+        switch (bitDepth) {
+            case 8:
+                return sample;
+            case 16:
+                return sample >> 8;
+            default:
+                return colorType == PALETTE ? sample : sample * 255 / ((1 << bitDepth) - 1);
+        }
+    }
+
+    private String readType() throws IOException {
+        byte[] type = new byte[4];
+        inputStream.readFully(type);
+        return new String(type, StandardCharsets.US_ASCII);
+    }
+
+    private static int readUnsignedShort(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 8 | (data[offset + 1] & 0xFF);
+    }
+
+    private static void readFully(InputStream inputStream, byte[] data) throws IOException {
+        int offset = 0;
+        while (offset < data.length) {
+            int read = inputStream.read(data, offset, data.length - offset);
+            if (read < 0) {
+                throw new EOFException("PNG image data is truncated");
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * Data of consecutive IDAT chunks as one stream
+     */
+    private class DataStream extends InputStream {
+        private int remaining;
+
+        private DataStream(int length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] data = new byte[1];
+            return read(data, 0, 1) < 0 ? -1 : data[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] data, int offset, int length) throws IOException {
+            while (remaining == 0) {
+                // skip the CRC and go to the next chunk
+                inputStream.readInt();
+                int nextLength = inputStream.readInt();
+                if (!"IDAT".equals(readType())) {
+                    remaining = -1;
+                    return -1;
+                }
+                remaining = nextLength;
+            }
+            if (remaining < 0) {
+                return -1;
+            }
+            int read = inputStream.read(data, offset, Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+}
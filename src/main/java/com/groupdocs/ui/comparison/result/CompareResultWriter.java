@@ -0,0 +1,147 @@
+package com.groupdocs.ui.comparison.result;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.comparison.ComparisonService;
+import com.groupdocs.ui.comparison.model.response.ChangeInfoEntity;
+import com.groupdocs.ui.comparison.model.response.CompareResultResponse;
+import com.groupdocs.ui.comparison.model.response.MultiCompareResultResponse;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import com.groupdocs.ui.model.request.LoadDocumentPageRequest;
+import com.groupdocs.ui.model.response.PageDescriptionEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * Writer of comparison results as JSON
+ * <p>
+ * Results keep images of loaded pages in the page images cache, every image is read from
+ * the cache, encoded and flushed to the client one by one, so the memory used by the response
+ * does not depend on the count of pages.
+ */
+@Component
+public class CompareResultWriter {
+
+    @Autowired
+    private ComparisonService comparisonService;
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ResultDirectorySweeper resultDirectorySweeper;
+
+    /**
+     * Write comparison result to the response
+     *
+     * @param compareResultResponse comparison result
+     * @param response              http response
+     */
+    public void write(CompareResultResponse compareResultResponse, HttpServletResponse response) throws IOException {
+        try (JsonGenerator generator = createGenerator(response)) {
+            writeResult(generator, compareResultResponse);
+        }
+    }
+
+    /**
+     * Write results of comparison with several documents to the response
+     *
+     * @param multiCompareResultResponse comparison results
+     * @param response                   http response
+     */
+    public void write(MultiCompareResultResponse multiCompareResultResponse, HttpServletResponse response) throws IOException {
+        try (JsonGenerator generator = createGenerator(response)) {
+            generator.writeStartObject();
+            generator.writeStringField("mode", multiCompareResultResponse.getMode());
+            generator.writeArrayFieldStart("results");
+            for (CompareResultResponse compareResultResponse : multiCompareResultResponse.getResults()) {
+                writeResult(generator, compareResultResponse);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private JsonGenerator createGenerator(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        return objectMapper.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+    }
+
+    private void writeResult(JsonGenerator generator, CompareResultResponse compareResultResponse) throws IOException {
+        final String resultGuid = compareResultResponse.getGuid();
+        // the result is not removed while its pages are written
+        try (ResultDirectorySweeper.Pin pin = resultDirectorySweeper.pin(resultGuid)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("changes");
+            // changes can be returned only by the change query
+            if (compareResultResponse.getChanges() != null && comparisonConfiguration.isInlineChanges()) {
+                for (ChangeInfoEntity change : compareResultResponse.getChanges()) {
+                    generator.writeObject(change);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("pages");
+            if (compareResultResponse.getPages() != null) {
+                for (PageDescriptionEntity page : compareResultResponse.getPages()) {
+                    writePage(generator, resultGuid, page);
+                    // send the page and release its buffers before the next one
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeStringField("guid", resultGuid);
+            generator.writeStringField("extension", compareResultResponse.getExtension());
+            generator.writeEndObject();
+        }
+    }
+
+    private void writePage(JsonGenerator generator, String resultGuid, PageDescriptionEntity page) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName("data");
+        if (page.getData() != null) {
+            generator.writeString(page.getData());
+        } else if (page.isLoaded()) {
+            writePageImage(generator, resultGuid, page.getNumber());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeStringField("url", page.getUrl());
+        generator.writeBooleanField("loaded", page.isLoaded());
+        generator.writeNumberField("angle", page.getAngle());
+        generator.writeNumberField("width", page.getWidth());
+        generator.writeNumberField("height", page.getHeight());
+        generator.writeNumberField("number", page.getNumber());
+        generator.writeEndObject();
+    }
+
+    private void writePageImage(JsonGenerator generator, String resultGuid, int pageNumber) throws IOException {
+        LoadDocumentPageRequest loadDocumentPageRequest = new LoadDocumentPageRequest();
+        loadDocumentPageRequest.setGuid(resultGuid);
+        loadDocumentPageRequest.setPage(pageNumber + 1);
+        // the cached image can be evicted before it is opened, then it is rendered again
+        FileInputStream inputStream = null;
+        for (int attempt = 0; inputStream == null; attempt++) {
+            // pages of the result are written all at once, there is nothing to prefetch
+            File image = comparisonService.loadDocumentPageImage(loadDocumentPageRequest, false);
+            try {
+                inputStream = new FileInputStream(image);
+            } catch (FileNotFoundException ex) {
+                if (attempt > 0) {
+                    throw new TotalGroupDocsException(ex.getMessage(), ex);
+                }
+            }
+        }
+        try (FileInputStream imageStream = inputStream) {
+            generator.writeBinary(imageStream, (int) imageStream.getChannel().size());
+        }
+    }
+}
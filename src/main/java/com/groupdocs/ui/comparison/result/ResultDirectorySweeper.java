@@ -0,0 +1,273 @@
+package com.groupdocs.ui.comparison.result;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.comparison.model.response.ResultDirectoryStatsEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cleanup of the result directory
+ * <p>
+ * Results are removed when they are not used longer than the retention time, and least recently
+ * used results are removed while the directory is larger than the quota. Results which are
+ * downloaded or rendered are pinned and never removed.
+ */
+@Component
+public class ResultDirectorySweeper {
+    private static final Logger logger = LoggerFactory.getLogger(ResultDirectorySweeper.class);
+
+    private static final long MEGABYTE = 1024 * 1024;
+    private static final Pin NOT_PINNED = new Pin(null, null);
+
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+
+    /**
+     * Usage counts of pinned results, guarded by itself
+     */
+    private final Map<String, Integer> pins = new HashMap<>();
+    /**
+     * Last access time of results used since start, the modification time is used for others
+     */
+    private final ConcurrentMap<String, Long> accessTimes = new ConcurrentHashMap<>();
+    private final AtomicLong reclaimedFiles = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+    private volatile long files;
+    private volatile long bytes;
+    private volatile long lastSweep;
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    public void init() {
+        long interval = comparisonConfiguration.getResultSweepInterval();
+        if (interval <= 0) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("result-directory-sweeper").setDaemon(true).build());
+        sweeper.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    sweep();
+                } catch (Exception ex) {
+                    logger.error("Exception occurred while cleaning result directory", ex);
+                }
+            }
+        }, interval, interval, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Protect the result from removing while it is used
+     *
+     * @param documentGuid path to document, documents outside of the result directory are ignored
+     * @return pin which should be closed when the document is not used
+     */
+    public Pin pin(String documentGuid) {
+        String key = getKey(documentGuid);
+        if (key == null) {
+            return NOT_PINNED;
+        }
+        synchronized (pins) {
+            Integer count = pins.get(key);
+            pins.put(key, count == null ? 1 : count + 1);
+        }
+        accessTimes.put(key, System.currentTimeMillis());
+        return new Pin(this, key);
+    }
+
+    /**
+     * Mark the result as used now
+     *
+     * @param documentGuid path to document, documents outside of the result directory are ignored
+     */
+    public void touch(String documentGuid) {
+        String key = getKey(documentGuid);
+        if (key != null) {
+            accessTimes.put(key, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Get state of the result directory after the last cleanup
+     */
+    public ResultDirectoryStatsEntity getStats() {
+        ResultDirectoryStatsEntity stats = new ResultDirectoryStatsEntity();
+        stats.setFiles(files);
+        stats.setBytes(bytes);
+        synchronized (pins) {
+            stats.setPinnedFiles(pins.size());
+        }
+        stats.setReclaimedFiles(reclaimedFiles.get());
+        stats.setReclaimedBytes(reclaimedBytes.get());
+        stats.setLastSweep(lastSweep);
+        return stats;
+    }
+
+    /**
+     * Remove expired results and least recently used results over the quota
+     */
+    public void sweep() throws IOException {
+        Path resultDirectory = getResultDirectory();
+        if (resultDirectory == null) {
+            return;
+        }
+        Path filesDirectory = Paths.get(comparisonConfiguration.getFilesDirectory()).toAbsolutePath().normalize();
+        if (filesDirectory.startsWith(resultDirectory)) {
+            logger.warn("Result directory {} contains documents, it is not cleaned", resultDirectory);
+            return;
+        }
+
+        List<ResultFile> results = new ArrayList<>();
+        long totalBytes = 0;
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(resultDirectory)) {
+            for (Path path : directoryStream) {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                String key = path.toString();
+                Long accessTime = accessTimes.get(key);
+                long lastAccess = attributes.lastModifiedTime().toMillis();
+                if (accessTime != null && accessTime > lastAccess) {
+                    lastAccess = accessTime;
+                }
+                results.add(new ResultFile(path, key, attributes.size(), lastAccess));
+                totalBytes += attributes.size();
+            }
+        }
+        Collections.sort(results);
+
+        long retention = TimeUnit.MINUTES.toMillis(comparisonConfiguration.getResultRetention());
+        long quota = comparisonConfiguration.getResultDirectorySize() * MEGABYTE;
+        long expired = System.currentTimeMillis() - retention;
+        long totalFiles = results.size();
+        Set<String> keys = new HashSet<>();
+        for (ResultFile result : results) {
+            boolean isExpired = retention > 0 && result.lastAccess < expired;
+            boolean isOverQuota = quota > 0 && totalBytes > quota;
+            if ((isExpired || isOverQuota) && remove(result)) {
+                totalBytes -= result.size;
+                totalFiles--;
+                reclaimedFiles.incrementAndGet();
+                reclaimedBytes.addAndGet(result.size);
+            } else {
+                keys.add(result.key);
+            }
+        }
+        // forget removed results
+        accessTimes.keySet().retainAll(keys);
+        files = totalFiles;
+        bytes = totalBytes;
+        lastSweep = System.currentTimeMillis();
+    }
+
+    private boolean remove(ResultFile result) {
+        synchronized (pins) {
+            if (pins.containsKey(result.key)) {
+                return false;
+            }
+            // the result can be used after it is selected for removing
+            Long accessTime = accessTimes.get(result.key);
+            if (accessTime != null && accessTime > result.lastAccess) {
+                return false;
+            }
+            try {
+                return Files.deleteIfExists(result.path);
+            } catch (IOException ex) {
+                // the file can be opened on some systems
+                logger.warn("Can not remove result {}", result.path, ex);
+                return false;
+            }
+        }
+    }
+
+    private Path getResultDirectory() {
+        String resultDirectory = comparisonConfiguration.getResultDirectory();
+        return StringUtils.isEmpty(resultDirectory) ? null : Paths.get(resultDirectory).toAbsolutePath().normalize();
+    }
+
+    private String getKey(String documentGuid) {
+        Path resultDirectory = getResultDirectory();
+        if (resultDirectory == null || StringUtils.isEmpty(documentGuid)) {
+            return null;
+        }
+        Path path = Paths.get(documentGuid).toAbsolutePath().normalize();
+        return resultDirectory.equals(path.getParent()) ? path.toString() : null;
+    }
+
+    private void unpin(String key) {
+        synchronized (pins) {
+            Integer count = pins.get(key);
+            if (count == null || count <= 1) {
+                pins.remove(key);
+            } else {
+                pins.put(key, count - 1);
+            }
+        }
+        accessTimes.put(key, System.currentTimeMillis());
+    }
+
+    /**
+     * Protection of the used result
+     */
+    public static class Pin implements AutoCloseable {
+        private final String key;
+        private ResultDirectorySweeper sweeper;
+
+        private Pin(ResultDirectorySweeper sweeper, String key) {
+            this.sweeper = sweeper;
+            this.key = key;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (sweeper != null) {
+                sweeper.unpin(key);
+                sweeper = null;
+            }
+        }
+    }
+
+    private static class ResultFile implements Comparable<ResultFile> {
+        private final Path path;
+        private final String key;
+        private final long size;
+        private final long lastAccess;
+
+        private ResultFile(Path path, String key, long size, long lastAccess) {
+            this.path = path;
+            this.key = key;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+
+        @Override
+        public int compareTo(ResultFile other) {
+            return Long.compare(lastAccess, other.lastAccess);
+        }
+    }
+}
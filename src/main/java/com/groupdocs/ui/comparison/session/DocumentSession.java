@@ -0,0 +1,142 @@
+package com.groupdocs.ui.comparison.session;
+
+import com.groupdocs.comparison.Comparer;
+import com.groupdocs.comparison.options.load.LoadOptions;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opened document shared between requests
+ * <p>
+ * Only one request at a time can use the document: it is leased by {@link DocumentSessionPool#acquire}
+ * and released by {@link #close()}. The document is disposed when the session is evicted from the pool
+ * and is not leased, or when the lease of the evicted session is released.
+ */
+public class DocumentSession implements AutoCloseable {
+    private final String documentGuid;
+    private final String password;
+    /**
+     * Estimated memory of the opened document
+     */
+    final int weight;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean evicted;
+    private Comparer comparer;
+
+    DocumentSession(String documentGuid, String password, int weight) {
+        this.documentGuid = documentGuid;
+        this.password = password;
+        this.weight = weight;
+    }
+
+    /**
+     * Create leased session which is not kept in the pool, the document is disposed on release
+     */
+    static DocumentSession unpooled(String documentGuid, String password) {
+        DocumentSession session = new DocumentSession(documentGuid, password, 0);
+        session.evicted = true;
+        session.lock.lock();
+        return session;
+    }
+
+    /**
+     * Get comparer with the opened document, the document is opened on the first call
+     *
+     * @return comparer
+     */
+    public Comparer getComparer() {
+        if (comparer == null) {
+            LoadOptions loadOptions = new LoadOptions();
+            loadOptions.setPassword(password);
+            comparer = new Comparer(documentGuid, loadOptions);
+        }
+        return comparer;
+    }
+
+    /**
+     * Release the session
+     */
+    @Override
+    public void close() {
+        try {
+            if (evicted) {
+                dispose();
+            }
+        } finally {
+            lock.unlock();
+        }
+        // the session can be evicted after the check, when evict could not lease it to dispose
+        if (evicted) {
+            disposeIfNotLeased();
+        }
+    }
+
+    /**
+     * Wait for the session and lease it
+     *
+     * @return false if the session is evicted and can't be used
+     */
+    boolean lease() {
+        lock.lock();
+        if (evicted) {
+            releaseEvicted();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Lease the session if it is not used by other requests
+     *
+     * @return false if the session is used or is evicted
+     */
+    boolean tryLease() {
+        if (!lock.tryLock()) {
+            return false;
+        }
+        if (evicted) {
+            releaseEvicted();
+            return false;
+        }
+        return true;
+    }
+
+    boolean isEvicted() {
+        return evicted;
+    }
+
+    void evict() {
+        evicted = true;
+        // a leased session is disposed on release
+        disposeIfNotLeased();
+    }
+
+    /**
+     * Dispose the evicted session which is leased by the current thread and release it,
+     * the thread which released the session before could fail to lease it for disposing
+     */
+    private void releaseEvicted() {
+        try {
+            dispose();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void disposeIfNotLeased() {
+        if (lock.tryLock()) {
+            try {
+                dispose();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void dispose() {
+        if (comparer != null) {
+            comparer.dispose();
+            comparer = null;
+        }
+    }
+}
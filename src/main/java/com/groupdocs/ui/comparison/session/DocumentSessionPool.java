@@ -0,0 +1,118 @@
+package com.groupdocs.ui.comparison.session;
+
+import com.google.common.cache.*;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import com.groupdocs.ui.util.FileHashes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.*;
+
+/**
+ * Pool of recently used opened documents
+ * <p>
+ * Sessions are removed after the idle timeout or when the estimated memory of opened documents
+ * exceeds the limit. The memory of an opened document is estimated by its file size.
+ */
+@Component
+public class DocumentSessionPool {
+    private static final long MEGABYTE = 1024 * 1024;
+
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+
+    private Cache<String, DocumentSession> sessions;
+    private ScheduledExecutorService cleaner;
+
+    @PostConstruct
+    public void init() {
+        sessions = CacheBuilder.newBuilder()
+                .expireAfterAccess(comparisonConfiguration.getSessionIdleTimeout(), TimeUnit.SECONDS)
+                .maximumWeight(comparisonConfiguration.getSessionPoolSize() * MEGABYTE)
+                .weigher(new Weigher<String, DocumentSession>() {
+                    @Override
+                    public int weigh(String key, DocumentSession session) {
+                        return session.weight;
+                    }
+                })
+                .removalListener(new RemovalListener<String, DocumentSession>() {
+                    @Override
+                    public void onRemoval(RemovalNotification<String, DocumentSession> notification) {
+                        notification.getValue().evict();
+                    }
+                })
+                .build();
+        // expired sessions are removed on cache access only, so clean the pool periodically
+        cleaner = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("document-session-cleaner").setDaemon(true).build());
+        cleaner.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                sessions.cleanUp();
+            }
+        }, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        cleaner.shutdownNow();
+        sessions.invalidateAll();
+    }
+
+    /**
+     * Lease the session of the document, waits while the session is used by other requests
+     *
+     * @param documentGuid path to document
+     * @param password     document password
+     * @return leased session, it should be closed to release
+     */
+    public DocumentSession acquire(String documentGuid, String password) {
+        return acquire(documentGuid, password, true);
+    }
+
+    /**
+     * Lease the session of the document if it is not used by other requests
+     *
+     * @param documentGuid path to document
+     * @param password     document password
+     * @return leased session, it should be closed to release, null if the session is used
+     */
+    public DocumentSession tryAcquire(String documentGuid, String password) {
+        return acquire(documentGuid, password, false);
+    }
+
+    private DocumentSession acquire(final String documentGuid, final String password, boolean wait) {
+        final File file = new File(documentGuid);
+        try {
+            // a changed document gets a new session
+            String passwordKey = StringUtils.isEmpty(password) ? "" : FileHashes.sha256(password);
+            String key = FileHashes.getKey(file) + '|' + passwordKey;
+            for (int attempt = 0; attempt < 2; attempt++) {
+                DocumentSession session = sessions.get(key, new Callable<DocumentSession>() {
+                    @Override
+                    public DocumentSession call() {
+                        int weight = (int) Math.max(1, Math.min(Integer.MAX_VALUE, file.length()));
+                        return new DocumentSession(documentGuid, password, weight);
+                    }
+                });
+                if (wait ? session.lease() : session.tryLease()) {
+                    return session;
+                }
+                if (!wait && !session.isEvicted()) {
+                    return null;
+                }
+            }
+            // the session is evicted right after creation, the document is too large for the pool
+            return DocumentSession.unpooled(documentGuid, password);
+        } catch (IOException | ExecutionException ex) {
+            throw new TotalGroupDocsException(ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.groupdocs.ui.comparison.upload;
+
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.config.DefaultDirectories;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import com.groupdocs.ui.model.request.InitUploadRequest;
+import com.groupdocs.ui.model.response.UploadStatusEntity;
+import com.groupdocs.ui.model.response.UploadedDocumentEntity;
+import com.groupdocs.ui.util.FileHashes;
+import com.groupdocs.ui.util.Utils;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Resumable upload of large files by chunks
+ * <p>
+ * Chunks are written directly to a preallocated file at their offsets. The count of received bytes
+ * is saved after every chunk, so an interrupted upload can be continued from the last acknowledged
+ * offset, also after restart of the application.
+ * <p>
+ * Chunks are read from the network without holding the lock of the upload, so a client whose
+ * connection is dropped can get the status and send the chunk again at once. The new chunk
+ * supersedes the stale one, which is rejected before it writes its next buffer.
+ */
+@Service
+public class ChunkedUploadService {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    public static final String UPLOADS_DIRECTORY_NAME = "uploads";
+    private static final String PART_EXTENSION = ".part";
+    private static final String STATE_EXTENSION = ".properties";
+    private static final Pattern UPLOAD_ID = Pattern.compile("[0-9a-f-]{36}");
+    private static final long MEGABYTE = 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+    @Autowired
+    private ContentStore contentStore;
+
+    private Path uploadsDirectory;
+    private final ConcurrentMap<String, Upload> uploads = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        uploadsDirectory = Paths.get(comparisonConfiguration.getCacheDirectory(), UPLOADS_DIRECTORY_NAME);
+        DefaultDirectories.makeDirs(uploadsDirectory);
+        removeExpiredUploads();
+    }
+
+    /**
+     * Start the upload
+     *
+     * @param initUploadRequest name and size of the file
+     * @return upload status
+     */
+    public UploadStatusEntity init(InitUploadRequest initUploadRequest) {
+        String fileName = FilenameUtils.getName(initUploadRequest.getFileName());
+        long size = initUploadRequest.getSize();
+        if (StringUtils.isEmpty(fileName) || size < 0) {
+            throw new TotalGroupDocsException("Incorrect file name or size");
+        }
+        long maxUploadSize = comparisonConfiguration.getMaxUploadSize() * MEGABYTE;
+        if (maxUploadSize > 0 && size > maxUploadSize) {
+            throw new TotalGroupDocsException("File is too large");
+        }
+        removeExpiredUploads();
+
+        Upload upload = new Upload(UUID.randomUUID().toString());
+        upload.fileName = fileName;
+        upload.size = size;
+        upload.sha256 = initUploadRequest.getSha256();
+        try (RandomAccessFile file = new RandomAccessFile(upload.getPartFile().toFile(), "rw")) {
+            file.setLength(size);
+            upload.save();
+        } catch (IOException ex) {
+            logger.error("Exception occurred while starting upload", ex);
+            throw new TotalGroupDocsException(ex.getMessage(), ex);
+        }
+        uploads.put(upload.id, upload);
+        return upload.toEntity();
+    }
+
+    /**
+     * Get upload status
+     *
+     * @param uploadId unique key of the upload
+     * @return upload status
+     */
+    public UploadStatusEntity getStatus(String uploadId) {
+        Upload upload = getUpload(uploadId);
+        synchronized (upload) {
+            return upload.toEntity();
+        }
+    }
+
+    /**
+     * Write the chunk
+     *
+     * @param uploadId    unique key of the upload
+     * @param offset      chunk offset, it can't be greater than the count of received bytes
+     * @param inputStream chunk content
+     * @return upload status
+     */
+    public UploadStatusEntity writeChunk(String uploadId, long offset, InputStream inputStream) {
+        Upload upload = getUpload(uploadId);
+        final long writer;
+        final long size;
+        synchronized (upload) {
+            if (upload.removed) {
+                throw new TotalGroupDocsException("Upload is not found");
+            }
+            if (offset < 0 || offset > upload.offset) {
+                throw new TotalGroupDocsException("Chunk offset should not be greater than " + upload.offset);
+            }
+            // the previous chunk, if it is still read, is stale now
+            writer = ++upload.writer;
+            size = upload.size;
+        }
+
+        try (FileChannel channel = FileChannel.open(upload.getPartFile(), StandardOpenOption.WRITE)) {
+            ReadableByteChannel chunk = Channels.newChannel(inputStream);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long position = offset;
+            while (position < size) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), size - position));
+                if (chunk.read(buffer) < 0) {
+                    break;
+                }
+                checkWriter(upload, writer);
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+            if (position == size && inputStream.read() != -1) {
+                throw new TotalGroupDocsException("Chunk exceeds the file size");
+            }
+            // acknowledge only data which is on the disk
+            channel.force(false);
+            synchronized (upload) {
+                checkWriter(upload, writer);
+                if (position > upload.offset) {
+                    upload.offset = position;
+                    upload.save();
+                }
+                return upload.toEntity();
+            }
+        } catch (IOException ex) {
+            logger.error("Exception occurred while writing chunk", ex);
+            throw new TotalGroupDocsException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Reject the chunk superseded by a newer chunk or by the end of the upload
+     */
+    private static void checkWriter(Upload upload, long writer) {
+        if (upload.writer != writer) {
+            throw new TotalGroupDocsException("Chunk is superseded by a newer chunk");
+        }
+    }
+
+    /**
+     * Check the received file and move it to the storage
+     *
+     * @param uploadId            unique key of the upload
+     * @param documentStoragePath path to storage
+     * @param rewrite             flag for rewriting
+     * @return uploaded document
+     */
+    public UploadedDocumentEntity complete(String uploadId, String documentStoragePath, boolean rewrite) {
+        Upload upload = getUpload(uploadId);
+        synchronized (upload) {
+            if (upload.offset != upload.size) {
+                throw new TotalGroupDocsException("Upload is not finished, received " + upload.offset + " of " + upload.size + " bytes");
+            }
+            try {
+                String sha256 = null;
+                if (!StringUtils.isEmpty(upload.sha256)) {
+                    try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(upload.getPartFile()))) {
+                        sha256 = FileHashes.sha256(inputStream);
+                    }
+                    if (!sha256.equalsIgnoreCase(upload.sha256)) {
+                        throw new TotalGroupDocsException("Checksum of the uploaded file is incorrect");
+                    }
+                }
+                String pathname = comparisonConfiguration.isDeduplicateUploads() ?
+                        contentStore.store(upload.getPartFile(), sha256, documentStoragePath, upload.fileName, rewrite) :
+                        Utils.moveUploadedFile(upload.getPartFile(), documentStoragePath, upload.fileName, rewrite);
+                remove(upload);
+
+                UploadedDocumentEntity uploadedDocument = new UploadedDocumentEntity();
+                uploadedDocument.setGuid(pathname);
+                return uploadedDocument;
+            } catch (IOException ex) {
+                logger.error("Exception occurred while finishing upload", ex);
+                throw new TotalGroupDocsException(ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Cancel the upload and remove received data
+     *
+     * @param uploadId unique key of the upload
+     */
+    public void cancel(String uploadId) {
+        Upload upload = getUpload(uploadId);
+        synchronized (upload) {
+            remove(upload);
+        }
+    }
+
+    private Upload getUpload(String uploadId) {
+        if (uploadId == null || !UPLOAD_ID.matcher(uploadId).matches()) {
+            throw new TotalGroupDocsException("Upload is not found");
+        }
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) {
+            // the upload can be started before restart
+            Upload loaded = new Upload(uploadId);
+            if (!loaded.load()) {
+                throw new TotalGroupDocsException("Upload is not found");
+            }
+            upload = uploads.putIfAbsent(uploadId, loaded);
+            if (upload == null) {
+                upload = loaded;
+            }
+        }
+        return upload;
+    }
+
+    private void remove(Upload upload) {
+        // chunks which are still read are not acknowledged
+        upload.removed = true;
+        upload.writer++;
+        uploads.remove(upload.id);
+        try {
+            Files.deleteIfExists(upload.getPartFile());
+            Files.deleteIfExists(upload.getStateFile());
+        } catch (IOException ex) {
+            logger.error("Exception occurred while removing upload {}", upload.id, ex);
+        }
+    }
+
+    private void removeExpiredUploads() {
+        long expired = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(comparisonConfiguration.getUploadExpiration());
+        File[] files = uploadsDirectory.toFile().listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.lastModified() < expired) {
+                uploads.remove(FilenameUtils.removeExtension(file.getName()));
+                if (!file.delete()) {
+                    logger.warn("Can not remove expired upload {}", file);
+                }
+            }
+        }
+    }
+
+    private class Upload {
+        private final String id;
+        private String fileName;
+        private long size;
+        private String sha256;
+        private long offset;
+        /**
+         * Number of the last started chunk, only this chunk can write and acknowledge data
+         */
+        private volatile long writer;
+        private boolean removed;
+
+        private Upload(String id) {
+            this.id = id;
+        }
+
+        private Path getPartFile() {
+            return uploadsDirectory.resolve(id + PART_EXTENSION);
+        }
+
+        private Path getStateFile() {
+            return uploadsDirectory.resolve(id + STATE_EXTENSION);
+        }
+
+        private void save() throws IOException {
+            Properties state = new Properties();
+            state.setProperty("fileName", fileName);
+            state.setProperty("size", String.valueOf(size));
+            state.setProperty("offset", String.valueOf(offset));
+            if (sha256 != null) {
+                state.setProperty("sha256", sha256);
+            }
+            Path temp = uploadsDirectory.resolve(id + STATE_EXTENSION + ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                state.store(outputStream, null);
+            }
+            Files.move(temp, getStateFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private boolean load() {
+            if (!Files.isRegularFile(getStateFile()) || !Files.isRegularFile(getPartFile())) {
+                return false;
+            }
+            Properties state = new Properties();
+            try (InputStream inputStream = Files.newInputStream(getStateFile())) {
+                state.load(inputStream);
+                fileName = state.getProperty("fileName");
+                size = Long.parseLong(state.getProperty("size"));
+                offset = Long.parseLong(state.getProperty("offset"));
+                sha256 = state.getProperty("sha256");
+                return true;
+            } catch (IOException | RuntimeException ex) {
+                logger.error("Exception occurred while loading upload {}", id, ex);
+                return false;
+            }
+        }
+
+        private UploadStatusEntity toEntity() {
+            UploadStatusEntity entity = new UploadStatusEntity();
+            entity.setUploadId(id);
+            entity.setSize(size);
+            entity.setOffset(offset);
+            return entity;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.groupdocs.ui.comparison.upload;
+
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.config.DefaultDirectories;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import com.groupdocs.ui.util.FileHashes;
+import com.groupdocs.ui.util.FreeFileNames;
+import com.groupdocs.ui.util.Utils;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storage of uploaded files by content hash
+ * <p>
+ * Every distinct content is stored once in the blob directory as {@code <sha256>.<extension>},
+ * uploaded file names are hard links to the blob, so the file system counts references to the
+ * content. The path to the blob is returned as the document guid, it is the same for all uploads
+ * of the same content.
+ */
+@Component
+public class ContentStore {
+    private static final Logger logger = LoggerFactory.getLogger(ContentStore.class);
+
+    public static final String BLOBS_DIRECTORY_NAME = ".blobs";
+    private static final String NLINK_ATTRIBUTE = "unix:nlink";
+
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+
+    private Path blobsDirectory;
+
+    @PostConstruct
+    public void init() {
+        blobsDirectory = Paths.get(comparisonConfiguration.getFilesDirectory(), BLOBS_DIRECTORY_NAME);
+        if (comparisonConfiguration.isDeduplicateUploads()) {
+            DefaultDirectories.makeDirs(blobsDirectory);
+            removeUnreferencedBlobs();
+        }
+    }
+
+    /**
+     * Upload the file from request content
+     *
+     * @param documentStoragePath path for the name of uploaded file
+     * @param content             file data
+     * @param rewrite             flag of rewriting the file name
+     * @return path to stored content
+     */
+    public String uploadFile(String documentStoragePath, MultipartFile content, boolean rewrite) {
+        try (InputStream inputStream = content.getInputStream()) {
+            return store(inputStream, documentStoragePath, content.getOriginalFilename(), rewrite);
+        } catch (Exception ex) {
+            logger.error("Exception occurred while uploading document", ex);
+            throw new TotalGroupDocsException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Store the stream content, the content is hashed while it is written
+     *
+     * @param inputStream         file content
+     * @param documentStoragePath path for the name of uploaded file
+     * @param fileName            name of uploaded file
+     * @param rewrite             flag of rewriting the file name
+     * @return path to stored content
+     */
+    public String store(InputStream inputStream, String documentStoragePath, String fileName, boolean rewrite) throws IOException {
+        Path temp = Files.createTempFile(blobsDirectory, "upload", ".tmp");
+        try {
+            MessageDigest digest = FileHashes.newSha256();
+            try (InputStream digestStream = new DigestInputStream(inputStream, digest)) {
+                Files.copy(digestStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return storeBlob(temp, FileHashes.toHex(digest.digest()), documentStoragePath, fileName, rewrite);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Store the file, the file is moved to the blob directory
+     *
+     * @param file                file to store
+     * @param sha256              hex encoded hash of the file content, computed if null
+     * @param documentStoragePath path for the name of uploaded file
+     * @param fileName            name of uploaded file
+     * @param rewrite             flag of rewriting the file name
+     * @return path to stored content
+     */
+    public String store(Path file, String sha256, String documentStoragePath, String fileName, boolean rewrite) throws IOException {
+        if (StringUtils.isEmpty(sha256)) {
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                sha256 = FileHashes.sha256(inputStream);
+            }
+        }
+        Path temp = Files.createTempFile(blobsDirectory, "upload", ".tmp");
+        try {
+            Files.move(file, temp, StandardCopyOption.REPLACE_EXISTING);
+            return storeBlob(temp, sha256.toLowerCase(), documentStoragePath, fileName, rewrite);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private String storeBlob(Path temp, String sha256, String documentStoragePath, String fileName, boolean rewrite) throws IOException {
+        fileName = FilenameUtils.getName(fileName);
+        String extension = Utils.parseFileExtension(fileName);
+        Path blob = blobsDirectory.resolve(sha256.substring(0, 2))
+                .resolve(StringUtils.isEmpty(extension) ? sha256 : sha256 + "." + extension);
+        if (!Files.exists(blob)) {
+            DefaultDirectories.makeDirs(blob.getParent());
+            try {
+                // the blob is never replaced, names already linked to it would keep the old copy
+                Files.move(temp, blob);
+                FileHashes.putSha256(blob.toFile(), sha256);
+            } catch (FileAlreadyExistsException ex) {
+                // the same content is stored concurrently
+            }
+        }
+        linkName(blob, documentStoragePath, fileName, rewrite);
+        return blob.toString();
+    }
+
+    /**
+     * Make the name of uploaded file refer to the blob
+     */
+    private void linkName(final Path blob, String documentStoragePath, String fileName, boolean rewrite) throws IOException {
+        Path name = Paths.get(documentStoragePath, fileName);
+        if (Files.exists(name) && Files.isSameFile(name, blob)) {
+            // the same content is already uploaded with this name
+            return;
+        }
+        if (rewrite) {
+            // replace the name only, the content it referred to can be shared with other names
+            Files.deleteIfExists(name);
+            link(blob, name);
+        } else {
+            // link the name or the name of the copy
+            FreeFileNames.claim(documentStoragePath, fileName, new FreeFileNames.Claim() {
+                @Override
+                public void claim(Path path) throws IOException {
+                    link(blob, path);
+                }
+            });
+        }
+    }
+
+    private static void link(Path blob, Path name) throws IOException {
+        try {
+            Files.createLink(name, blob);
+        } catch (FileAlreadyExistsException ex) {
+            throw ex;
+        } catch (UnsupportedOperationException | FileSystemException ex) {
+            // hard links are not supported by the file system, keep a copy under the name
+            logger.warn("Can not create link {}, the file is copied", name, ex);
+            Files.copy(blob, name);
+        }
+    }
+
+    /**
+     * Remove blobs without names referring to them
+     * <p>
+     * Recently stored blobs are kept, so guids returned by uploads stay valid for a while after
+     * the uploaded file is removed from the storage.
+     */
+    private void removeUnreferencedBlobs() {
+        long expired = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(comparisonConfiguration.getUploadExpiration());
+        File[] directories = blobsDirectory.toFile().listFiles();
+        if (directories == null) {
+            return;
+        }
+        for (File directory : directories) {
+            File[] blobs = directory.listFiles();
+            if (blobs == null) {
+                // temp files of interrupted uploads
+                if (directory.lastModified() < expired && !directory.delete()) {
+                    logger.warn("Can not remove {}", directory);
+                }
+                continue;
+            }
+            for (File blob : blobs) {
+                try {
+                    Object links = Files.getAttribute(blob.toPath(), NLINK_ATTRIBUTE);
+                    if (links instanceof Integer && (Integer) links <= 1 && blob.lastModified() < expired) {
+                        Files.delete(blob.toPath());
+                    }
+                } catch (UnsupportedOperationException | IllegalArgumentException ex) {
+                    // reference counts are not available on this file system
+                    return;
+                } catch (IOException ex) {
+                    logger.error("Exception occurred while removing blob {}", blob, ex);
+                }
+            }
+        }
+    }
+}
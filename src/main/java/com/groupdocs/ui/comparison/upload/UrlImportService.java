@@ -0,0 +1,334 @@
+package com.groupdocs.ui.comparison.upload;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.comparison.model.response.ImportStatusEntity;
+import com.groupdocs.ui.config.DefaultDirectories;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import com.groupdocs.ui.util.Utils;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Import of documents by url in the background
+ * <p>
+ * Documents are downloaded by a dedicated pool with connect and read timeouts, limited time and size
+ * of one download and limited count of simultaneous downloads from one host, so slow hosts can't
+ * hold request threads or all download threads.
+ */
+@Service
+public class UrlImportService {
+    private static final Logger logger = LoggerFactory.getLogger(UrlImportService.class);
+
+    public static final String QUEUED = "queued";
+    public static final String DOWNLOADING = "downloading";
+    public static final String DONE = "done";
+    public static final String FAILED = "failed";
+
+    public static final String IMPORTS_DIRECTORY_NAME = "imports";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MEGABYTE = 1024 * 1024;
+
+    @Autowired
+    private ComparisonConfiguration comparisonConfiguration;
+    @Autowired
+    private ContentStore contentStore;
+
+    private final ConcurrentMap<String, ImportTask> imports = new ConcurrentHashMap<>();
+    /**
+     * Running and waiting downloads by host, guarded by itself
+     */
+    private final Map<String, Host> hosts = new HashMap<>();
+    private final AtomicInteger unfinished = new AtomicInteger();
+    private ThreadPoolExecutor executor;
+    private Path importsDirectory;
+
+    @PostConstruct
+    public void init() {
+        importsDirectory = Paths.get(comparisonConfiguration.getCacheDirectory(), IMPORTS_DIRECTORY_NAME);
+        DefaultDirectories.makeDirs(importsDirectory);
+        // files of downloads interrupted by restart
+        File[] files = importsDirectory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    logger.warn("Can not remove {}", file);
+                }
+            }
+        }
+        int threads = comparisonConfiguration.getImportThreads();
+        // the count of imports is limited on submit, so the queue is not bounded
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("url-import-%d").setDaemon(true).build());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue import of the document
+     *
+     * @param url                 url of the document
+     * @param documentStoragePath path for the imported document
+     * @param rewrite             flag of rewriting the file with the same name
+     * @return state of the import
+     */
+    public ImportStatusEntity submit(String url, String documentStoragePath, boolean rewrite) {
+        return submitTask(url, documentStoragePath, rewrite).toEntity();
+    }
+
+    /**
+     * Import the document and wait for the result for the configured short time,
+     * the request thread is not held for the whole download
+     *
+     * @param url                 url of the document
+     * @param documentStoragePath path for the imported document
+     * @param rewrite             flag of rewriting the file with the same name
+     * @return state of the import, it contains path to the imported document if the import is done
+     */
+    public ImportStatusEntity importFile(String url, String documentStoragePath, boolean rewrite) {
+        ImportTask task = submitTask(url, documentStoragePath, rewrite);
+        try {
+            task.finished.await(Math.max(0, comparisonConfiguration.getImportWait()), TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TotalGroupDocsException(ex.getMessage(), ex);
+        }
+        if (FAILED.equals(task.status)) {
+            throw new TotalGroupDocsException(task.message);
+        }
+        return task.toEntity();
+    }
+
+    /**
+     * Get import state
+     *
+     * @param importId unique key of the import
+     * @return import state
+     */
+    public ImportStatusEntity getStatus(String importId) {
+        ImportTask task = imports.get(importId);
+        if (task == null) {
+            throw new TotalGroupDocsException("Import is not found");
+        }
+        return task.toEntity();
+    }
+
+    private ImportTask submitTask(String url, String documentStoragePath, boolean rewrite) {
+        URL fileUrl = parseUrl(url);
+        removeExpiredImports();
+        if (unfinished.incrementAndGet() > comparisonConfiguration.getImportQueueCapacity()) {
+            unfinished.decrementAndGet();
+            throw new TotalGroupDocsException("Too many imports in progress, try again later");
+        }
+        ImportTask task = new ImportTask(UUID.randomUUID().toString(), fileUrl, documentStoragePath, rewrite);
+        imports.put(task.id, task);
+        schedule(task);
+        return task;
+    }
+
+    private static URL parseUrl(String url) {
+        try {
+            URL fileUrl = new URL(url);
+            String protocol = fileUrl.getProtocol().toLowerCase();
+            if (!"http".equals(protocol) && !"https".equals(protocol)) {
+                throw new TotalGroupDocsException("Only http and https urls are supported");
+            }
+            return fileUrl;
+        } catch (MalformedURLException ex) {
+            throw new TotalGroupDocsException("Incorrect url", ex);
+        }
+    }
+
+    /**
+     * Run the import or keep it waiting while the host has too many downloads
+     */
+    private void schedule(ImportTask task) {
+        synchronized (hosts) {
+            Host host = hosts.get(task.host);
+            if (host == null) {
+                host = new Host();
+                hosts.put(task.host, host);
+            }
+            if (host.active >= comparisonConfiguration.getImportHostConnections()) {
+                host.waiting.add(task);
+                return;
+            }
+            host.active++;
+        }
+        executor.execute(task);
+    }
+
+    /**
+     * Run the next import from the host of finished import
+     */
+    private void release(String hostKey) {
+        ImportTask next;
+        synchronized (hosts) {
+            Host host = hosts.get(hostKey);
+            next = host.waiting.poll();
+            if (next == null) {
+                host.active--;
+                if (host.active == 0) {
+                    hosts.remove(hostKey);
+                }
+                return;
+            }
+        }
+        try {
+            executor.execute(next);
+        } catch (RejectedExecutionException ex) {
+            // the service is stopped
+            logger.warn("Import {} is not started", next.id);
+        }
+    }
+
+    private void removeExpiredImports() {
+        long expired = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(comparisonConfiguration.getImportRetention());
+        Iterator<ImportTask> iterator = imports.values().iterator();
+        while (iterator.hasNext()) {
+            ImportTask task = iterator.next();
+            if (task.finishedTime > 0 && task.finishedTime < expired) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class Host {
+        private int active;
+        private final Queue<ImportTask> waiting = new ArrayDeque<>();
+    }
+
+    private class ImportTask implements Runnable {
+        private final String id;
+        private final URL url;
+        private final String host;
+        private final String documentStoragePath;
+        private final boolean rewrite;
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile String status = QUEUED;
+        private volatile long loadedBytes;
+        private volatile long totalBytes = -1;
+        private volatile String guid;
+        private volatile String message;
+        private volatile long finishedTime;
+
+        private ImportTask(String id, URL url, String documentStoragePath, boolean rewrite) {
+            this.id = id;
+            this.url = url;
+            this.host = url.getHost().toLowerCase() + ":" + (url.getPort() == -1 ? url.getDefaultPort() : url.getPort());
+            this.documentStoragePath = documentStoragePath;
+            this.rewrite = rewrite;
+        }
+
+        @Override
+        public void run() {
+            status = DOWNLOADING;
+            Path temp = null;
+            try {
+                temp = Files.createTempFile(importsDirectory, "import", ".tmp");
+                String fileName = download(temp);
+                guid = comparisonConfiguration.isDeduplicateUploads() ?
+                        contentStore.store(temp, null, documentStoragePath, fileName, rewrite) :
+                        Utils.moveUploadedFile(temp, documentStoragePath, fileName, rewrite);
+                status = DONE;
+            } catch (Exception ex) {
+                logger.error("Exception occurred while importing document {}", url, ex);
+                message = ex.getMessage();
+                status = FAILED;
+            } finally {
+                if (temp != null) {
+                    try {
+                        Files.deleteIfExists(temp);
+                    } catch (IOException ex) {
+                        logger.warn("Can not remove {}", temp);
+                    }
+                }
+                finishedTime = System.currentTimeMillis();
+                unfinished.decrementAndGet();
+                finished.countDown();
+                release(host);
+            }
+        }
+
+        /**
+         * Download the document to the file
+         *
+         * @return name of the document
+         */
+        private String download(Path file) throws IOException {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(comparisonConfiguration.getImportTimeout());
+            long maxSize = comparisonConfiguration.getMaxUploadSize() * MEGABYTE;
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            try {
+                connection.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(comparisonConfiguration.getImportConnectTimeout()));
+                connection.setReadTimeout((int) TimeUnit.SECONDS.toMillis(comparisonConfiguration.getImportReadTimeout()));
+                int responseCode = connection.getResponseCode();
+                if (responseCode / 100 != 2) {
+                    throw new TotalGroupDocsException("Document is not available, server responded with status " + responseCode);
+                }
+                // the name is taken from the final url after redirects
+                String fileName = FilenameUtils.getName(connection.getURL().getPath());
+                if (StringUtils.isEmpty(fileName)) {
+                    throw new TotalGroupDocsException("Url does not contain file name");
+                }
+                totalBytes = connection.getContentLengthLong();
+                if (maxSize > 0 && totalBytes > maxSize) {
+                    throw new TotalGroupDocsException("File is too large");
+                }
+                try (InputStream inputStream = connection.getInputStream();
+                     OutputStream outputStream = Files.newOutputStream(file)) {
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    int read;
+                    while ((read = inputStream.read(buffer)) != -1) {
+                        loadedBytes += read;
+                        if (maxSize > 0 && loadedBytes > maxSize) {
+                            throw new TotalGroupDocsException("File is too large");
+                        }
+                        if (System.currentTimeMillis() > deadline) {
+                            throw new TotalGroupDocsException("Download takes too long");
+                        }
+                        outputStream.write(buffer, 0, read);
+                    }
+                }
+                return fileName;
+            } finally {
+                connection.disconnect();
+            }
+        }
+
+        private ImportStatusEntity toEntity() {
+            ImportStatusEntity entity = new ImportStatusEntity();
+            entity.setImportId(id);
+            entity.setStatus(status);
+            entity.setLoadedBytes(loadedBytes);
+            entity.setTotalBytes(totalBytes);
+            entity.setGuid(guid);
+            entity.setMessage(message);
+            return entity;
+        }
+    }
+}
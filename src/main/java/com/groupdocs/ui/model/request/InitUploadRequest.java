@@ -0,0 +1,40 @@
+package com.groupdocs.ui.model.request;
+
+public class InitUploadRequest {
+    /**
+     * Name of the uploaded file
+     */
+    private String fileName;
+    /**
+     * Size of the uploaded file in bytes
+     */
+    private long size;
+    /**
+     * Hex encoded SHA-256 of the file content, optional
+     */
+    private String sha256;
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+}
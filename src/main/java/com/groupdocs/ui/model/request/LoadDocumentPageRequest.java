@@ -3,6 +3,26 @@ package com.groupdocs.ui.model.request;
 public class LoadDocumentPageRequest extends LoadDocumentRequest {
     private Integer page;
     private boolean loadAllPages;
+    /**
+     * Target width of the page image, null to use the scale
+     */
+    private Integer width;
+    /**
+     * Scale of the page image, null for the native page size
+     */
+    private Double scale;
+    /**
+     * Format of the page image, png or jpg, null for png
+     */
+    private String format;
+    /**
+     * Quality of JPEG page image from 1 to 100, null for the configured quality
+     */
+    private Integer quality;
+    /**
+     * Render the page as thumbnail of the configured width
+     */
+    private boolean thumbnail;
 
     public Integer getPage() {
         return page;
@@ -19,4 +39,44 @@ public class LoadDocumentPageRequest extends LoadDocumentRequest {
     public void setLoadAllPages(boolean loadAllPages) {
         this.loadAllPages = loadAllPages;
     }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public Double getScale() {
+        return scale;
+    }
+
+    public void setScale(Double scale) {
+        this.scale = scale;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public Integer getQuality() {
+        return quality;
+    }
+
+    public void setQuality(Integer quality) {
+        this.quality = quality;
+    }
+
+    public boolean isThumbnail() {
+        return thumbnail;
+    }
+
+    public void setThumbnail(boolean thumbnail) {
+        this.thumbnail = thumbnail;
+    }
 }
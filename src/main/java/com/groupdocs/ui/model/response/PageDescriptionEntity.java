@@ -10,6 +10,14 @@ public class PageDescriptionEntity {
      * Page data
      */
     private String data;
+    /**
+     * Url of the page image, used instead of data
+     */
+    private String url;
+    /**
+     * Page data is loaded, otherwise the page should be loaded by url or separate request
+     */
+    private boolean loaded;
     private int angle;
     private double width;
     private double height;
@@ -54,4 +62,20 @@ public class PageDescriptionEntity {
     public void setData(String data) {
         this.data = data;
     }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void setLoaded(boolean loaded) {
+        this.loaded = loaded;
+    }
 }
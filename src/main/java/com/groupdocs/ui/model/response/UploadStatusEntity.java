@@ -0,0 +1,45 @@
+package com.groupdocs.ui.model.response;
+
+/**
+ * UploadStatusEntity
+ *
+ * @author Aspose Pty Ltd
+ */
+public class UploadStatusEntity {
+    /**
+     * Unique key of the upload
+     */
+    private String uploadId;
+    /**
+     * Size of the uploaded file in bytes
+     */
+    private long size;
+    /**
+     * Count of received bytes, the upload is continued from this offset
+     */
+    private long offset;
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+}
@@ -0,0 +1,284 @@
+package com.groupdocs.ui.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Download of files with support of conditional and range requests
+ */
+public class FileDownloads {
+    /**
+     * Requests with more ranges are answered with the whole file
+     */
+    private static final int MAX_RANGES = 100;
+    private static final String BYTES = "bytes";
+    /**
+     * Method of the Jetty output stream which sends content of a channel through its own direct buffers,
+     * it is looked up by name, so the application still runs in other containers
+     */
+    private static final ClassValue<Method> SEND_CONTENT = new ClassValue<Method>() {
+        @Override
+        protected Method computeValue(Class<?> type) {
+            try {
+                return type.getMethod("sendContent", ReadableByteChannel.class);
+            } catch (NoSuchMethodException ex) {
+                return null;
+            }
+        }
+    };
+
+    /**
+     * Send the file or requested ranges of the file
+     * <p>
+     * Only requested ranges are read from the file and the file is never loaded into memory as a whole.
+     * Jetty reads the whole file or the single range from the file channel itself, other containers
+     * and multipart responses get the content through the small transfer buffer of the file channel
+     *
+     * @param file     file to send
+     * @param request  request with Range, If-Range, If-None-Match and If-Modified-Since headers
+     * @param response response
+     */
+    public static void sendFile(File file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+        final String eTag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        Utils.addFileDownloadHeaders(response, file.getName(), null);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES);
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return;
+        }
+
+        List<long[]> ranges = getRanges(request, length, eTag, lastModified);
+        if (ranges == null) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES + " */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        final boolean sendContent = !"HEAD".equals(request.getMethod());
+
+        if (ranges.isEmpty()) {
+            response.setContentLengthLong(length);
+            if (sendContent) {
+                transfer(file, response, new long[][]{{0, length - 1}}, null);
+            }
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (ranges.size() == 1) {
+            long[] range = ranges.get(0);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, getContentRange(range, length));
+            response.setContentLengthLong(range[1] - range[0] + 1);
+            if (sendContent) {
+                transfer(file, response, new long[][]{range}, null);
+            }
+            return;
+        }
+
+        // multiple ranges are sent as multipart/byteranges
+        final String boundary = UUID.randomUUID().toString();
+        byte[][] partHeaders = new byte[ranges.size() + 1][];
+        long contentLength = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            long[] range = ranges.get(i);
+            partHeaders[i] = ("\r\n--" + boundary + "\r\n" +
+                    HttpHeaders.CONTENT_TYPE + ": " + MediaType.APPLICATION_OCTET_STREAM_VALUE + "\r\n" +
+                    HttpHeaders.CONTENT_RANGE + ": " + getContentRange(range, length) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            contentLength += partHeaders[i].length + range[1] - range[0] + 1;
+        }
+        partHeaders[ranges.size()] = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += partHeaders[ranges.size()].length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (sendContent) {
+            transfer(file, response, ranges.toArray(new long[0][]), partHeaders);
+        }
+    }
+
+    /**
+     * Get requested ranges
+     *
+     * @return inclusive ranges, empty list to send the whole file, null if ranges can't be satisfied
+     */
+    private static List<long[]> getRanges(HttpServletRequest request, long length, String eTag, long lastModified) {
+        List<long[]> ranges = new ArrayList<>();
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (StringUtils.isEmpty(rangeHeader) || !isIfRangeMatched(request, eTag, lastModified)) {
+            return ranges;
+        }
+        List<HttpRange> httpRanges;
+        try {
+            httpRanges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException ex) {
+            // ignore unsupported units and malformed ranges
+            return ranges;
+        }
+        if (httpRanges.size() > MAX_RANGES) {
+            return ranges;
+        }
+        for (HttpRange httpRange : httpRanges) {
+            long start;
+            long end;
+            try {
+                start = httpRange.getRangeStart(length);
+                end = Math.min(httpRange.getRangeEnd(length), length - 1);
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            ranges.add(new long[]{start, end});
+        }
+        return ranges;
+    }
+
+    /**
+     * Check that the file is not changed since the client got its part
+     */
+    private static boolean isIfRangeMatched(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (StringUtils.isEmpty(ifRange)) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private static String getContentRange(long[] range, long length) {
+        return BYTES + " " + range[0] + "-" + range[1] + "/" + length;
+    }
+
+    /**
+     * Transfer ranges of the file to the response
+     *
+     * @param partHeaders headers written before every range and after the last one, can be null
+     */
+    private static void transfer(File file, HttpServletResponse response, long[][] ranges, byte[][] partHeaders) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+             ServletOutputStream outputStream = response.getOutputStream()) {
+            if (partHeaders == null && ranges.length == 1
+                    && sendContent(outputStream, new RangeChannel(fileChannel, ranges[0][0], ranges[0][1] + 1))) {
+                return;
+            }
+            WritableByteChannel outputChannel = Channels.newChannel(outputStream);
+            for (int i = 0; i < ranges.length; i++) {
+                if (partHeaders != null) {
+                    outputStream.write(partHeaders[i]);
+                }
+                long position = ranges[i][0];
+                long end = ranges[i][1] + 1;
+                while (position < end) {
+                    long transferred = fileChannel.transferTo(position, end - position, outputChannel);
+                    if (transferred <= 0) {
+                        throw new IOException("File is truncated during download");
+                    }
+                    position += transferred;
+                }
+            }
+            if (partHeaders != null) {
+                outputStream.write(partHeaders[ranges.length]);
+            }
+        }
+    }
+
+    /**
+     * Send the channel by the container without copying it through the output stream
+     *
+     * @return false if the container can't send channels
+     */
+    private static boolean sendContent(ServletOutputStream outputStream, ReadableByteChannel channel) throws IOException {
+        Method sendContent = SEND_CONTENT.get(outputStream.getClass());
+        if (sendContent == null) {
+            return false;
+        }
+        try {
+            sendContent.invoke(outputStream, channel);
+            return true;
+        } catch (IllegalAccessException ex) {
+            return false;
+        } catch (InvocationTargetException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Range of the file read by positions, the position of the file channel is not used
+     */
+    private static class RangeChannel implements ReadableByteChannel {
+        private final FileChannel fileChannel;
+        private final long end;
+        private long position;
+
+        private RangeChannel(FileChannel fileChannel, long start, long end) {
+            this.fileChannel = fileChannel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read(ByteBuffer buffer) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int limit = buffer.limit();
+            buffer.limit((int) Math.min(limit, buffer.position() + end - position));
+            try {
+                int read = fileChannel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("File is truncated during download");
+                }
+                position += read;
+                return read;
+            } finally {
+                buffer.limit(limit);
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return fileChannel.isOpen();
+        }
+
+        @Override
+        public void close() {
+            // the file channel is closed by the transfer
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.groupdocs.ui.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Content hashes of files and strings
+ */
+public class FileHashes {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Hashes of already read files, the key contains the file key (inode), modification time
+     * in full resolution and size of the file so a changed or replaced file is hashed again
+     */
+    private static final Cache<String, String> fileHashes = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .build();
+
+    /**
+     * Get SHA-256 of the file content
+     *
+     * @param file file to hash
+     * @return hex encoded hash
+     */
+    public static String sha256(final File file) {
+        try {
+            return fileHashes.get(getKey(file), new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    try (InputStream inputStream = new FileInputStream(file)) {
+                        return sha256(inputStream);
+                    }
+                }
+            });
+        } catch (IOException | ExecutionException ex) {
+            throw new TotalGroupDocsException("Exception occurred while hashing document", ex);
+        }
+    }
+
+    /**
+     * Remember SHA-256 of the file computed while the file was written
+     *
+     * @param file   written file
+     * @param sha256 hex encoded hash of the file content
+     */
+    public static void putSha256(File file, String sha256) {
+        try {
+            fileHashes.put(getKey(file), sha256);
+        } catch (IOException ex) {
+            // the hash is computed again when needed
+        }
+    }
+
+    /**
+     * Get key of the file state, the key changes when the file is changed or replaced
+     * <p>
+     * File.lastModified has one second resolution on some platforms, so the modification time
+     * is taken from file attributes together with the file key (inode)
+     *
+     * @param file file
+     * @return canonical path, file key, modification time and size of the file
+     */
+    public static String getKey(File file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        return file.getCanonicalPath() + '|' + attributes.fileKey() + '|' + attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS) + '|' + attributes.size();
+    }
+
+    /**
+     * Get SHA-256 of the stream content, the stream is read to the end
+     *
+     * @param inputStream stream to hash
+     * @return hex encoded hash
+     */
+    public static String sha256(InputStream inputStream) throws IOException {
+        MessageDigest digest = newSha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Get SHA-256 of the string
+     *
+     * @param text string to hash
+     * @return hex encoded hash
+     */
+    public static String sha256(String text) {
+        return toHex(newSha256().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
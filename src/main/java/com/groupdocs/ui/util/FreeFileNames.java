@@ -0,0 +1,118 @@
+package com.groupdocs.ui.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Allocation of free names for uploaded files which should not rewrite existing ones
+ * <p>
+ * A name is claimed by creating the file with it, so concurrent uploads never get the same name.
+ * The last copy number of every name is kept in memory, the directory is read only when the name
+ * is used for the first time.
+ */
+public class FreeFileNames {
+    /**
+     * Claims the name by creating the file, fails with {@link FileAlreadyExistsException} if the name is taken
+     */
+    public interface Claim {
+        void claim(Path path) throws IOException;
+    }
+
+    /**
+     * Claim the name by creating an empty file
+     */
+    public static final Claim CREATE_FILE = new Claim() {
+        @Override
+        public void claim(Path path) throws IOException {
+            Files.createFile(path);
+        }
+    };
+
+    /**
+     * Last copy numbers by directory and file name
+     */
+    private static final Cache<String, AtomicInteger> copyNumbers = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .build();
+
+    /**
+     * Claim the file name or the first free name of its copy, like name-Copy(1).ext
+     *
+     * @param directory directory of the file
+     * @param fileName  name of the file
+     * @param claim     creation of the file
+     * @return path to claimed file
+     */
+    public static Path claim(String directory, String fileName, Claim claim) throws IOException {
+        final Path directoryPath = Paths.get(directory).toAbsolutePath();
+        try {
+            Path path = directoryPath.resolve(fileName);
+            claim.claim(path);
+            return path;
+        } catch (FileAlreadyExistsException ex) {
+            // look for a name of the copy
+        }
+
+        final String baseName = FilenameUtils.removeExtension(fileName);
+        final String extension = FilenameUtils.getExtension(fileName);
+        AtomicInteger copyNumber;
+        try {
+            copyNumber = copyNumbers.get(directoryPath + "|" + fileName, new Callable<AtomicInteger>() {
+                @Override
+                public AtomicInteger call() throws Exception {
+                    return new AtomicInteger(findLastCopyNumber(directoryPath, baseName, extension));
+                }
+            });
+        } catch (ExecutionException ex) {
+            throw new IOException("Can't list files", ex.getCause());
+        }
+        while (true) {
+            Path path = directoryPath.resolve(getCopyName(baseName, extension, copyNumber.incrementAndGet()));
+            try {
+                claim.claim(path);
+                return path;
+            } catch (FileAlreadyExistsException ex) {
+                // the file is created outside of uploads, try the next number
+            }
+        }
+    }
+
+    private static int findLastCopyNumber(Path directory, String baseName, String extension) throws IOException {
+        String prefix = baseName + "-Copy(";
+        String suffix = getCopySuffix(extension);
+        int lastNumber = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.length() > prefix.length() + suffix.length() && name.startsWith(prefix) && name.endsWith(suffix)) {
+                    try {
+                        int number = Integer.parseInt(name.substring(prefix.length(), name.length() - suffix.length()));
+                        lastNumber = Math.max(lastNumber, number);
+                    } catch (NumberFormatException ex) {
+                        // not a copy
+                    }
+                }
+            }
+        }
+        return lastNumber;
+    }
+
+    private static String getCopyName(String baseName, String extension, int number) {
+        return baseName + "-Copy(" + number + getCopySuffix(extension);
+    }
+
+    private static String getCopySuffix(String extension) {
+        return extension.isEmpty() ? ")" : ")." + extension;
+    }
+}
@@ -16,9 +16,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 
@@ -45,6 +47,51 @@ public class Utils {
         return extension == null ? null : extension.toLowerCase();
     }
 
+    /**
+     * Encode document guid (path) to the id usable in urls
+     *
+     * @param documentGuid path to file
+     * @return url-safe document id
+     */
+    public static String encodeDocumentId(String documentGuid) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(documentGuid.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode document guid (path) from the url-safe id
+     *
+     * @param documentId url-safe document id
+     * @return path to file
+     */
+    public static String decodeDocumentId(String documentId) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(documentId), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new TotalGroupDocsException("Incorrect document id", ex);
+        }
+    }
+
+    /**
+     * Check if the file is located in one of directories
+     *
+     * @param path        path to file
+     * @param directories allowed directories
+     * @return true if the file is inside one of directories
+     */
+    public static boolean isInDirectories(String path, String... directories) {
+        try {
+            String canonicalPath = new File(path).getCanonicalPath();
+            for (String directory : directories) {
+                if (!StringUtils.isEmpty(directory) && canonicalPath.startsWith(new File(directory).getCanonicalPath() + File.separator)) {
+                    return true;
+                }
+            }
+        } catch (IOException ex) {
+            logger.error("Exception occurred while checking path {}", path, ex);
+        }
+        return false;
+    }
+
     /**
      * Fill header HTTP response with file data
      */
@@ -114,13 +161,44 @@ public class Utils {
             Files.copy(uploadedInputStream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
             return filePath;
         } else {
-            if (file.exists()) {
-                // get file with new name
-                file = getFreeFileName(documentStoragePath, fileName);
+            // claim the name or the name of the copy, then save file into it
+            Path path = FreeFileNames.claim(documentStoragePath, fileName, FreeFileNames.CREATE_FILE);
+            try {
+                Files.copy(uploadedInputStream, path, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                Files.deleteIfExists(path);
+                throw ex;
+            }
+            return path.toString();
+        }
+    }
+
+    /**
+     * Move the file received by chunks to the storage
+     *
+     * @param uploadedFile        received file
+     * @param documentStoragePath path to storage
+     * @param fileName            name of file
+     * @param rewrite             flag for rewriting
+     * @return path to file
+     */
+    public static String moveUploadedFile(Path uploadedFile, String documentStoragePath, String fileName, boolean rewrite) throws IOException {
+        String filePath = String.format("%s%s%s", documentStoragePath, File.separator, fileName);
+        File file = new File(filePath);
+        // check rewrite mode
+        if (rewrite) {
+            // save file with rewrite if exists
+            Files.move(uploadedFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return filePath;
+        } else {
+            // claim the name or the name of the copy, then move file into it
+            Path path = FreeFileNames.claim(documentStoragePath, fileName, FreeFileNames.CREATE_FILE);
+            try {
+                Files.move(uploadedFile, path, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                Files.deleteIfExists(path);
+                throw ex;
             }
-            // save file without rewriting
-            Path path = file.toPath();
-            Files.copy(uploadedInputStream, path);
             return path.toString();
         }
     }
@@ -143,30 +221,4 @@ public class Utils {
         return httpHeaders;
     }
 
-    /**
-     * Rename file if exist
-     *
-     * @param directory directory where files are located
-     * @param fileName  file name
-     * @return new file with new file name
-     */
-    public static File getFreeFileName(String directory, String fileName) {
-        File file = null;
-        try {
-            File folder = new File(directory);
-            File[] listOfFiles = folder.listFiles();
-            assert listOfFiles != null : "2808aff2-ecc3-42e4-9f22-47533c44d014";
-            for (int i = 0; i < listOfFiles.length; i++) {
-                int number = i + 1;
-                String newFileName = FilenameUtils.removeExtension(fileName) + "-Copy(" + number + ")." + FilenameUtils.getExtension(fileName);
-                file = new File(directory + File.separator + newFileName);
-                if (!file.exists()) {
-                    break;
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return file;
-    }
 }
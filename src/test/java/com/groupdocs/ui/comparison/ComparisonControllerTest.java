@@ -1,7 +1,14 @@
 package com.groupdocs.ui.comparison;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groupdocs.ui.comparison.model.request.CompareRequest;
+import com.groupdocs.ui.exception.GroupDocsExceptionHandler;
+import com.groupdocs.ui.model.request.LoadDocumentRequest;
+import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -11,7 +18,19 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
@@ -24,14 +43,30 @@ public class ComparisonControllerTest {
     protected WebApplicationContext wac;
     @Autowired
     ComparisonController controller;
+    @Autowired
+    ComparisonService comparisonService;
+    @Autowired
+    ComparisonConfiguration comparisonConfiguration;
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private String multiCompareMode;
+
     @Before
     public void setUp() throws Exception {
         InternalResourceViewResolver viewResolver = new InternalResourceViewResolver();
         viewResolver.setPrefix("/templates/");
         viewResolver.setSuffix(".html");
 
-        this.mvc = standaloneSetup(this.controller).setViewResolvers(viewResolver).build();
+        this.mvc = standaloneSetup(this.controller).setViewResolvers(viewResolver)
+                .setControllerAdvice(new GroupDocsExceptionHandler()).build();
+        multiCompareMode = comparisonConfiguration.getMultiCompareMode();
     }
+
+    @After
+    public void tearDown() {
+        comparisonConfiguration.setMultiCompareMode(multiCompareMode);
+    }
+
     @Test
     public void getView()  throws Exception {
         mvc.perform(get("/comparison")).andExpect(status().isOk()).andExpect(view().name("comparison"));
@@ -61,6 +96,65 @@ public class ComparisonControllerTest {
     public void compare() {
     }
 
-    public void multiCompare() {
+    @Test
+    public void multiCompareWithPairwiseMode() throws Exception {
+        comparisonConfiguration.setMultiCompareMode(ComparisonServiceImpl.MULTI_COMPARE_PAIRWISE);
+
+        mvc.perform(post("/comparison/multiCompare").contentType(MediaType.APPLICATION_JSON)
+                .content(toJson(createCompareRequest("source", "first target", "second target"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mode").value(ComparisonServiceImpl.MULTI_COMPARE_PAIRWISE))
+                .andExpect(jsonPath("$.results", hasSize(2)));
+    }
+
+    @Test
+    public void multiCompareWithMultiMode() throws Exception {
+        comparisonConfiguration.setMultiCompareMode(ComparisonServiceImpl.MULTI_COMPARE_MULTI);
+
+        mvc.perform(post("/comparison/multiCompare").contentType(MediaType.APPLICATION_JSON)
+                .content(toJson(createCompareRequest("source", "first target", "second target"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mode").value(ComparisonServiceImpl.MULTI_COMPARE_MULTI))
+                .andExpect(jsonPath("$.results", hasSize(1)));
+    }
+
+    @Test
+    public void multiCompareRejectsOneDocument() throws Exception {
+        mvc.perform(post("/comparison/multiCompare").contentType(MediaType.APPLICATION_JSON)
+                .content(toJson(createCompareRequest("source"))))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    public void checkFilesRejectsLessThanTwoDocuments() throws Exception {
+        assertFalse(comparisonService.checkFiles(createCompareRequest()));
+        assertFalse(comparisonService.checkFiles(createCompareRequest("source")));
+        assertTrue(comparisonService.checkFiles(createCompareRequest("source", "target")));
+    }
+
+    @Test
+    public void checkFilesRejectsDifferentFormats() throws Exception {
+        CompareRequest compareRequest = createCompareRequest("source", "target");
+        compareRequest.getGuids().get(1).setGuid(folder.newFile("target.pdf").getAbsolutePath());
+
+        assertFalse(comparisonService.checkFiles(compareRequest));
+    }
+
+    private CompareRequest createCompareRequest(String... contents) throws Exception {
+        List<LoadDocumentRequest> guids = new ArrayList<>();
+        for (int i = 0; i < contents.length; i++) {
+            File file = folder.newFile("document" + i + ".txt");
+            Files.write(file.toPath(), Collections.singletonList(contents[i]), StandardCharsets.UTF_8);
+            LoadDocumentRequest loadDocumentRequest = new LoadDocumentRequest();
+            loadDocumentRequest.setGuid(file.getAbsolutePath());
+            guids.add(loadDocumentRequest);
+        }
+        CompareRequest compareRequest = new CompareRequest();
+        compareRequest.setGuids(guids);
+        return compareRequest;
+    }
+
+    private static String toJson(Object value) throws Exception {
+        return new ObjectMapper().writeValueAsString(value);
     }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.groupdocs.ui.comparison.render;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class PageTilesTest {
+    private static final int TILE_SIZE = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sliceRgbaImage() throws Exception {
+        assertTiles(createImage(BufferedImage.TYPE_INT_ARGB, 150, 200));
+    }
+
+    @Test
+    public void sliceRgbImage() throws Exception {
+        assertTiles(createImage(BufferedImage.TYPE_INT_RGB, 128, 129));
+    }
+
+    @Test
+    public void slicePaletteImage() throws Exception {
+        assertTiles(createImage(BufferedImage.TYPE_BYTE_INDEXED, 70, 300));
+    }
+
+    @Test
+    public void sliceBinaryImage() throws Exception {
+        assertTiles(createImage(BufferedImage.TYPE_BYTE_BINARY, 65, 63));
+    }
+
+    @Test
+    public void sliceGrayImage() throws Exception {
+        BufferedImage image = createImage(BufferedImage.TYPE_BYTE_GRAY, 100, 100);
+        Map<String, BufferedImage> tiles = slice(image);
+
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int gray = image.getRaster().getSample(x, y, 0);
+                int pixel = getTile(tiles, x, y).getRGB(x % TILE_SIZE, y % TILE_SIZE);
+                assertEquals(0xFF000000 | gray << 16 | gray << 8 | gray, pixel);
+            }
+        }
+    }
+
+    private void assertTiles(BufferedImage image) throws IOException {
+        Map<String, BufferedImage> tiles = slice(image);
+
+        assertEquals(((image.getWidth() + TILE_SIZE - 1) / TILE_SIZE) * ((image.getHeight() + TILE_SIZE - 1) / TILE_SIZE), tiles.size());
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                assertEquals("pixel " + x + "," + y, image.getRGB(x, y), getTile(tiles, x, y).getRGB(x % TILE_SIZE, y % TILE_SIZE));
+            }
+        }
+    }
+
+    private Map<String, BufferedImage> slice(BufferedImage image) throws IOException {
+        File png = folder.newFile();
+        ImageIO.write(image, "png", png);
+        final Map<String, BufferedImage> tiles = new HashMap<>();
+        PageTiles pageTiles = new PageTiles(image.getWidth(), image.getHeight(), TILE_SIZE, 1);
+        pageTiles.slice(png, PageImageOptions.PNG, 0, new PageTiles.TileWriter() {
+            @Override
+            public void write(int column, int row, byte[] tile) throws IOException {
+                tiles.put(column + "_" + row, ImageIO.read(new ByteArrayInputStream(tile)));
+            }
+        });
+        return tiles;
+    }
+
+    private static BufferedImage getTile(Map<String, BufferedImage> tiles, int x, int y) {
+        BufferedImage tile = tiles.get(x / TILE_SIZE + "_" + y / TILE_SIZE);
+        assertNotNull(tile);
+        return tile;
+    }
+
+    private static BufferedImage createImage(int type, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Random random = new Random(width * 31 + height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                // gradients are filtered by the encoder, noise is not
+                int rgb = x % 16 < 8 ? random.nextInt() : (x * 255 / width) << 16 | (y * 255 / height) << 8 | (x + y) & 0xFF | (x * 7 & 0xFF) << 24;
+                if (type == BufferedImage.TYPE_BYTE_GRAY) {
+                    image.getRaster().setSample(x, y, 0, rgb & 0xFF);
+                } else {
+                    image.setRGB(x, y, rgb);
+                }
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,272 @@
+package com.groupdocs.ui.comparison.upload;
+
+import com.groupdocs.ui.comparison.ComparisonConfiguration;
+import com.groupdocs.ui.comparison.model.response.ImportStatusEntity;
+import com.groupdocs.ui.exception.TotalGroupDocsException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class UrlImportServiceTest {
+    private static final byte[] CONTENT = "document content".getBytes();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private String baseUrl;
+    private String filesDirectory;
+    private ComparisonConfiguration comparisonConfiguration;
+    private UrlImportService urlImportService;
+
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger maxActiveRequests = new AtomicInteger();
+    private final CountDownLatch releaseSlowRequests = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/files/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, 200, CONTENT);
+            }
+        });
+        server.createContext("/large/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, 200, new byte[2 * 1024 * 1024]);
+            }
+        });
+        server.createContext("/slow/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                int active = activeRequests.incrementAndGet();
+                synchronized (maxActiveRequests) {
+                    maxActiveRequests.set(Math.max(maxActiveRequests.get(), active));
+                }
+                try {
+                    releaseSlowRequests.await(10, TimeUnit.SECONDS);
+                    respond(exchange, 200, CONTENT);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    activeRequests.decrementAndGet();
+                }
+            }
+        });
+        server.createContext("/stalled/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        filesDirectory = folder.newFolder("files").getAbsolutePath();
+        comparisonConfiguration = new ComparisonConfiguration();
+        comparisonConfiguration.setFilesDirectory(filesDirectory);
+        comparisonConfiguration.setCacheDirectory(folder.newFolder("cache").getAbsolutePath());
+        comparisonConfiguration.setDeduplicateUploads(false);
+        comparisonConfiguration.setMaxUploadSize(1);
+        comparisonConfiguration.setJobRetention(60);
+        comparisonConfiguration.setImportThreads(4);
+        comparisonConfiguration.setImportHostConnections(2);
+        comparisonConfiguration.setImportQueueCapacity(10);
+        comparisonConfiguration.setImportConnectTimeout(1);
+        comparisonConfiguration.setImportReadTimeout(1);
+        comparisonConfiguration.setImportTimeout(10);
+        comparisonConfiguration.setImportWait(10);
+        comparisonConfiguration.setImportRetention(60);
+
+        urlImportService = new UrlImportService();
+        ReflectionTestUtils.setField(urlImportService, "comparisonConfiguration", comparisonConfiguration);
+        urlImportService.init();
+    }
+
+    @After
+    public void tearDown() {
+        releaseSlowRequests.countDown();
+        urlImportService.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    public void importFile() throws Exception {
+        String guid = urlImportService.importFile(baseUrl + "/files/document.docx", filesDirectory, false).getGuid();
+
+        assertEquals(new File(filesDirectory, "document.docx").getAbsolutePath(), new File(guid).getAbsolutePath());
+        assertArrayEquals(CONTENT, Files.readAllBytes(new File(guid).toPath()));
+    }
+
+    @Test
+    public void importFileWithFreeName() throws Exception {
+        String first = urlImportService.importFile(baseUrl + "/files/document.docx", filesDirectory, false).getGuid();
+        String second = urlImportService.importFile(baseUrl + "/files/document.docx", filesDirectory, false).getGuid();
+
+        assertNotEquals(first, second);
+        assertArrayEquals(CONTENT, Files.readAllBytes(new File(second).toPath()));
+    }
+
+    @Test
+    public void returnStateOfLongImport() throws Exception {
+        comparisonConfiguration.setImportWait(0);
+
+        ImportStatusEntity status = urlImportService.importFile(baseUrl + "/slow/document.docx", filesDirectory, false);
+
+        assertNotEquals(UrlImportService.DONE, status.getStatus());
+        assertNull(status.getGuid());
+        releaseSlowRequests.countDown();
+        waitForImport(status.getImportId());
+        assertEquals(UrlImportService.DONE, urlImportService.getStatus(status.getImportId()).getStatus());
+    }
+
+    @Test
+    public void rejectLargeFile() {
+        try {
+            urlImportService.importFile(baseUrl + "/large/document.docx", filesDirectory, false);
+            fail("Large file is imported");
+        } catch (TotalGroupDocsException ex) {
+            assertEquals("File is too large", ex.getMessage());
+        }
+        assertFalse(new File(filesDirectory, "document.docx").exists());
+    }
+
+    @Test
+    public void rejectMissingFile() {
+        try {
+            urlImportService.importFile(baseUrl + "/missing/document.docx", filesDirectory, false);
+            fail("Missing file is imported");
+        } catch (TotalGroupDocsException ex) {
+            assertTrue(ex.getMessage().contains("404"));
+        }
+    }
+
+    @Test(expected = TotalGroupDocsException.class)
+    public void rejectUnsupportedProtocol() {
+        urlImportService.submit("file:///etc/passwd", filesDirectory, false);
+    }
+
+    @Test
+    public void failOnReadTimeout() {
+        long start = System.currentTimeMillis();
+        try {
+            urlImportService.importFile(baseUrl + "/stalled/document.docx", filesDirectory, false);
+            fail("Stalled file is imported");
+        } catch (TotalGroupDocsException ex) {
+            assertTrue(System.currentTimeMillis() - start < 4000);
+        }
+    }
+
+    @Test
+    public void limitConnectionsPerHost() throws Exception {
+        List<String> importIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            importIds.add(urlImportService.submit(baseUrl + "/slow/document" + i + ".docx", filesDirectory, false).getImportId());
+        }
+        // two downloads run, others wait for the host
+        waitForActiveRequests(2);
+        int queued = 0;
+        for (String importId : importIds) {
+            if (UrlImportService.QUEUED.equals(urlImportService.getStatus(importId).getStatus())) {
+                queued++;
+            }
+        }
+        assertEquals(3, queued);
+
+        releaseSlowRequests.countDown();
+        for (String importId : importIds) {
+            waitForImport(importId);
+            assertEquals(UrlImportService.DONE, urlImportService.getStatus(importId).getStatus());
+        }
+        assertEquals(2, maxActiveRequests.get());
+    }
+
+    @Test
+    public void otherHostsAreNotBlocked() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            urlImportService.submit(baseUrl + "/slow/document" + i + ".docx", filesDirectory, false);
+        }
+        // the same server is another host by name
+        String otherHostUrl = "http://localhost:" + server.getAddress().getPort() + "/files/other.docx";
+        ImportStatusEntity status = urlImportService.submit(otherHostUrl, filesDirectory, false);
+        waitForImport(status.getImportId());
+
+        assertEquals(UrlImportService.DONE, urlImportService.getStatus(status.getImportId()).getStatus());
+        assertEquals(2, activeRequests.get());
+    }
+
+    @Test
+    public void limitQueuedImports() {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            urls.add(baseUrl + "/slow/document" + i + ".docx");
+        }
+        int submitted = 0;
+        try {
+            for (String url : urls) {
+                urlImportService.submit(url, filesDirectory, false);
+                submitted++;
+            }
+            fail("All imports are queued");
+        } catch (TotalGroupDocsException ex) {
+            assertEquals(10, submitted);
+        }
+    }
+
+    private void waitForActiveRequests(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (activeRequests.get() < count) {
+            if (System.currentTimeMillis() >= deadline) {
+                fail("Requests are not started");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private void waitForImport(String importId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline) {
+            String status = urlImportService.getStatus(importId).getStatus();
+            if (UrlImportService.DONE.equals(status) || UrlImportService.FAILED.equals(status)) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Import is not finished");
+    }
+
+    private static void respond(HttpExchange exchange, int code, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+}
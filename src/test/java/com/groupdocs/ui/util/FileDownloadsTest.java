@@ -0,0 +1,141 @@
+package com.groupdocs.ui.util;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class FileDownloadsTest {
+    private static final byte[] CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = folder.newFile("result.docx");
+        Files.write(file.toPath(), CONTENT);
+    }
+
+    @Test
+    public void sendWholeFile() throws Exception {
+        MockHttpServletResponse response = send(request(null));
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void sendSuffixRange() throws Exception {
+        MockHttpServletResponse response = send(request("bytes=-5"));
+
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertEquals("bytes 31-35/36", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, 31, 36), response.getContentAsByteArray());
+    }
+
+    @Test
+    public void sendOpenEndedRange() throws Exception {
+        MockHttpServletResponse response = send(request("bytes=30-"));
+
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertEquals("bytes 30-35/36", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, 30, 36), response.getContentAsByteArray());
+    }
+
+    @Test
+    public void sendRangeBeyondEnd() throws Exception {
+        MockHttpServletResponse response = send(request("bytes=30-100"));
+
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertEquals("bytes 30-35/36", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(6, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void sendOverlappingRanges() throws Exception {
+        MockHttpServletResponse response = send(request("bytes=0-5,3-8"));
+
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String content = response.getContentAsString();
+        assertTrue(content.contains("Content-Range: bytes 0-5/36\r\n\r\n012345\r\n"));
+        assertTrue(content.contains("Content-Range: bytes 3-8/36\r\n\r\n345678\r\n"));
+        assertEquals(content.length(), Long.parseLong(response.getHeader(HttpHeaders.CONTENT_LENGTH)));
+        String boundary = response.getContentType().substring(response.getContentType().indexOf('=') + 1);
+        assertTrue(content.endsWith("\r\n--" + boundary + "--\r\n"));
+    }
+
+    @Test
+    public void rejectUnsatisfiableRange() throws Exception {
+        MockHttpServletResponse response = send(request("bytes=36-40"));
+
+        assertEquals(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatus());
+        assertEquals("bytes */36", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void sendRangeWhenIfRangeMatches() throws Exception {
+        String eTag = send(request(null)).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = request("bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, eTag);
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, 0, 4), response.getContentAsByteArray());
+    }
+
+    @Test
+    public void sendWholeFileWhenIfRangeMismatches() throws Exception {
+        MockHttpServletRequest request = request("bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"changed\"");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(CONTENT, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void answerNotModified() throws Exception {
+        String eTag = send(request(null)).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = request(null);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    private static MockHttpServletRequest request(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/comparison/downloadDocument");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileDownloads.sendFile(file, request, response);
+        return response;
+    }
+}